@@ -0,0 +1,304 @@
+package site.hackery.wonseok.codegen;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Generates the lookup tables used by {@code HangulParser} and {@code RomajaTransliterator} as Java source, so that
+ * nothing has to be built when those classes are first loaded, which happens on the render thread the first time the
+ * IME is used.
+ * <p>
+ * Array initializers compile to one store per element, which would make the class initializers slower than building
+ * the tables at runtime, and is too much code for a single method once a table has a few thousand elements. Instead,
+ * each table is written as a string constant, which lives in the constant pool and is copied out in one go.
+ */
+public class TableGenerator {
+    private static final String PACKAGE = "site.hackery.wonseok.util";
+
+    // The Hangul Compatibility Jamo block, which HangulParser's tables are indexed from.
+    private static final char JAMO_BASE = 0x3130;
+    private static final int JAMO_COUNT = 0x60;
+
+    private static final char[] CHOSEONG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ',
+            'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private static final char[] JUNGSEONG = {
+            'ㅏ', 'ㅐ', 'ㅑ', 'ㅒ', 'ㅓ', 'ㅔ', 'ㅕ', 'ㅖ', 'ㅗ', 'ㅘ',
+            'ㅙ', 'ㅚ', 'ㅛ', 'ㅜ', 'ㅝ', 'ㅞ', 'ㅟ', 'ㅠ', 'ㅡ', 'ㅢ', 'ㅣ'
+    };
+
+    private static final char[] JONGSEONG = {
+            'ㄱ', 'ㄲ', 'ㄳ', 'ㄴ', 'ㄵ', 'ㄶ', 'ㄷ', 'ㄹ',
+            'ㄺ', 'ㄻ', 'ㄼ', 'ㄽ', 'ㄾ', 'ㄿ', 'ㅀ', 'ㅁ', 'ㅂ', 'ㅄ',
+            'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    // Each compound, followed by the two 자모 it's made of.
+    private static final String[] COMPOUNDS = {
+            "ㅘㅗㅏ", "ㅙㅗㅐ", "ㅚㅗㅣ", "ㅝㅜㅓ", "ㅞㅜㅔ", "ㅟㅜㅣ", "ㅢㅡㅣ",
+            "ㄳㄱㅅ", "ㄵㄴㅈ", "ㄶㄴㅎ", "ㄺㄹㄱ", "ㄻㄹㅁ", "ㄼㄹㅂ", "ㄽㄹㅅ", "ㄾㄹㅌ", "ㄿㄹㅍ", "ㅀㄹㅎ", "ㅄㅂㅅ"
+    };
+
+    // Each consonant is listed with the 자모 it makes at the start of a syllable, and at the end of one.
+    // 'ng' before a vowel is read as 'n' ending one syllable and 'g' starting the next, i.e. 'hangeul' is '한글'.
+    private static final String[] ROMAJA_CONSONANTS = {
+            "g", "ㄱ", "ㄱ",
+            "k", "ㅋ", "ㄱ",
+            "kk", "ㄲ", "ㄲ",
+            "gg", "ㄲ", "ㄲ",
+            "n", "ㄴ", "ㄴ",
+            "d", "ㄷ", "ㄷ",
+            "t", "ㅌ", "ㄷ",
+            "tt", "ㄸ", "ㄸ",
+            "dd", "ㄸ", "ㄸ",
+            "r", "ㄹ", "ㄹ",
+            "l", "ㄹ", "ㄹ",
+            "m", "ㅁ", "ㅁ",
+            "b", "ㅂ", "ㅂ",
+            "v", "ㅂ", "ㅂ",
+            "p", "ㅍ", "ㅂ",
+            "f", "ㅍ", "ㅂ",
+            "pp", "ㅃ", "ㅃ",
+            "bb", "ㅃ", "ㅃ",
+            "s", "ㅅ", "ㅅ",
+            "sh", "ㅅ", "ㅅ",
+            "ss", "ㅆ", "ㅆ",
+            "ng", "ㄴㄱ", "ㅇ",
+            "j", "ㅈ", "ㅈ",
+            "z", "ㅈ", "ㅈ",
+            "jj", "ㅉ", "ㅉ",
+            "ch", "ㅊ", "ㅊ",
+            "h", "ㅎ", "ㅎ",
+    };
+
+    private static final String[] ROMAJA_VOWELS = {
+            "a", "ㅏ", "ae", "ㅐ", "ya", "ㅑ", "yae", "ㅒ", "eo", "ㅓ", "e", "ㅔ", "yeo", "ㅕ", "ye", "ㅖ",
+            "o", "ㅗ", "wa", "ㅘ", "wae", "ㅙ", "oe", "ㅚ", "oi", "ㅚ", "yo", "ㅛ", "u", "ㅜ", "oo", "ㅜ",
+            "wo", "ㅝ", "we", "ㅞ", "wi", "ㅟ", "yu", "ㅠ", "yoo", "ㅠ", "eu", "ㅡ", "ui", "ㅢ", "eui", "ㅢ",
+            "i", "ㅣ", "ee", "ㅣ",
+    };
+
+    private static final int MAX_PIECE_LENGTH = 3;
+
+    /**
+     * @param args The source directory to generate the tables in.
+     */
+    public static void main(String[] args) throws IOException {
+        File directory = new File(args[0], PACKAGE.replace('.', File.separatorChar));
+        directory.mkdirs();
+
+        try (PrintWriter out = open(new File(directory, "HangulTables.java"))) {
+            writeHangulTables(out);
+        }
+
+        try (PrintWriter out = open(new File(directory, "RomajaTables.java"))) {
+            writeRomajaTables(out);
+        }
+    }
+
+    private static PrintWriter open(File file) throws IOException {
+        return new PrintWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private static void writeHangulTables(PrintWriter out) {
+        byte[] choseongIndex = new byte[JAMO_COUNT];
+        byte[] jungseongIndex = new byte[JAMO_COUNT];
+        byte[] jongseongIndex = new byte[JAMO_COUNT];
+        Arrays.fill(choseongIndex, (byte) -1);
+        Arrays.fill(jungseongIndex, (byte) -1);
+        Arrays.fill(jongseongIndex, (byte) -1);
+
+        for (int i = 0; i < CHOSEONG.length; i++)
+            choseongIndex[CHOSEONG[i] - JAMO_BASE] = (byte) i;
+
+        for (int i = 0; i < JUNGSEONG.length; i++)
+            jungseongIndex[JUNGSEONG[i] - JAMO_BASE] = (byte) i;
+
+        for (int i = 0; i < JONGSEONG.length; i++)
+            jongseongIndex[JONGSEONG[i] - JAMO_BASE] = (byte) i;
+
+        int[] splitTable = new int[JAMO_COUNT];
+        char[] joinTable = new char[JAMO_COUNT * JAMO_COUNT];
+
+        for (String compound : COMPOUNDS) {
+            char first = compound.charAt(1);
+            char second = compound.charAt(2);
+
+            splitTable[compound.charAt(0) - JAMO_BASE] = first << 16 | second;
+            joinTable[(first - JAMO_BASE) * JAMO_COUNT + (second - JAMO_BASE)] = compound.charAt(0);
+        }
+
+        writeHeader(out, "HangulTables", "The 자모 tables used by {@link HangulParser}.");
+
+        writeChars(out, "CHOSEONG", CHOSEONG);
+        writeChars(out, "JUNGSEONG", JUNGSEONG);
+        writeChars(out, "JONGSEONG", JONGSEONG);
+
+        out.println("    // Dense tables indexed by (jamo - 0x3130), so that every lookup is a single array read.");
+        writeBytes(out, "CHOSEONG_INDEX", choseongIndex);
+        writeBytes(out, "JUNGSEONG_INDEX", jungseongIndex);
+        writeBytes(out, "JONGSEONG_INDEX", jongseongIndex);
+
+        out.println("    // SPLIT_TABLE packs a compound's two halves into one int; JOIN_TABLE is a 0x60 x 0x60 grid of compounds.");
+        writeInts(out, "SPLIT_TABLE", splitTable);
+        writeChars(out, "JOIN_TABLE", joinTable);
+
+        writeFooter(out, true, true);
+    }
+
+    private static void writeRomajaTables(PrintWriter out) {
+        int pieceCount = ROMAJA_CONSONANTS.length / 3 + ROMAJA_VOWELS.length / 2;
+        int maxStates = 1 + pieceCount * MAX_PIECE_LENGTH;
+
+        int[] next = new int[maxStates * 26];
+        int[] pieces = new int[maxStates];
+        Arrays.fill(next, -1);
+        Arrays.fill(pieces, -1);
+
+        int[] initial = new int[pieceCount];
+        int[] fin = new int[pieceCount];
+
+        int states = 1;
+        for (int piece = 0; piece < pieceCount; piece++) {
+            boolean consonant = piece < ROMAJA_CONSONANTS.length / 3;
+            String romaja = consonant ? ROMAJA_CONSONANTS[piece * 3] : ROMAJA_VOWELS[(piece - ROMAJA_CONSONANTS.length / 3) * 2];
+
+            if (consonant) {
+                initial[piece] = pack(ROMAJA_CONSONANTS[piece * 3 + 1]);
+                fin[piece] = pack(ROMAJA_CONSONANTS[piece * 3 + 2]);
+            } else {
+                initial[piece] = pack(ROMAJA_VOWELS[(piece - ROMAJA_CONSONANTS.length / 3) * 2 + 1]);
+            }
+
+            int state = 0;
+            for (int i = 0; i < romaja.length(); i++) {
+                int transition = state * 26 + romaja.charAt(i) - 'a';
+
+                if (next[transition] == -1) {
+                    next[transition] = states++;
+                }
+
+                state = next[transition];
+            }
+
+            pieces[state] = piece;
+        }
+
+        writeHeader(out, "RomajaTables", "The romanization trie used by {@link RomajaTransliterator}.");
+
+        out.println("    static final int MAX_PIECE_LENGTH = " + MAX_PIECE_LENGTH + ";");
+        out.println();
+        out.println("    // The trie, compiled into flat arrays: NEXT[state * 26 + letter] is the next state (or -1),");
+        out.println("    // and PIECES[state] is the piece matched on reaching that state (or -1).");
+        writeInts(out, "NEXT", Arrays.copyOf(next, states * 26));
+        writeInts(out, "PIECES", Arrays.copyOf(pieces, states));
+
+        out.println("    // The 자모 each piece outputs, packed two to an int. Vowels have no final form.");
+        writeInts(out, "INITIAL", initial);
+        writeInts(out, "FINAL", fin);
+
+        writeFooter(out, false, true);
+    }
+
+    private static int pack(String jamo) {
+        return jamo.charAt(0) << 16 | (jamo.length() > 1 ? jamo.charAt(1) : 0);
+    }
+
+    private static void writeHeader(PrintWriter out, String name, String description) {
+        out.println("// Generated by " + TableGenerator.class.getName() + ". Don't edit this file, edit the generator.");
+        out.println("package " + PACKAGE + ";");
+        out.println();
+        out.println("/**");
+        out.println(" * " + description);
+        out.println(" */");
+        out.println("final class " + name + " {");
+        out.println("    private " + name + "() {");
+        out.println("    }");
+        out.println();
+    }
+
+    private static void writeFooter(PrintWriter out, boolean bytes, boolean ints) {
+        if (bytes) {
+            out.println("    private static byte[] bytes(String table) {");
+            out.println("        byte[] bytes = new byte[table.length()];");
+            out.println("        for (int i = 0; i < bytes.length; i++) {");
+            out.println("            bytes[i] = (byte) table.charAt(i);");
+            out.println("        }");
+            out.println();
+            out.println("        return bytes;");
+            out.println("    }");
+            out.println();
+        }
+
+        if (ints) {
+            out.println("    // Each int is written as two chars, high half first.");
+            out.println("    private static int[] ints(String table) {");
+            out.println("        int[] ints = new int[table.length() / 2];");
+            out.println("        for (int i = 0; i < ints.length; i++) {");
+            out.println("            ints[i] = table.charAt(i * 2) << 16 | table.charAt(i * 2 + 1);");
+            out.println("        }");
+            out.println();
+            out.println("        return ints;");
+            out.println("    }");
+        }
+
+        out.println("}");
+    }
+
+    private static void writeChars(PrintWriter out, String name, char[] table) {
+        out.println("    static final char[] " + name + " = (" + literal(table) + ").toCharArray();");
+        out.println();
+    }
+
+    private static void writeBytes(PrintWriter out, String name, byte[] table) {
+        char[] chars = new char[table.length];
+        for (int i = 0; i < table.length; i++) {
+            chars[i] = (char) (table[i] & 0xFF);
+        }
+
+        out.println("    static final byte[] " + name + " = bytes(" + literal(chars) + ");");
+        out.println();
+    }
+
+    private static void writeInts(PrintWriter out, String name, int[] table) {
+        char[] chars = new char[table.length * 2];
+        for (int i = 0; i < table.length; i++) {
+            chars[i * 2] = (char) (table[i] >>> 16);
+            chars[i * 2 + 1] = (char) table[i];
+        }
+
+        out.println("    static final int[] " + name + " = ints(" + literal(chars) + ");");
+        out.println();
+    }
+
+    // A string literal, split into lines that the compiler joins back into a single constant.
+    private static String literal(char[] chars) {
+        StringBuilder literal = new StringBuilder("\"");
+
+        for (int i = 0; i < chars.length; i++) {
+            if (i > 0 && i % 16 == 0) {
+                literal.append("\" +\n            \"");
+            }
+
+            char c = chars[i];
+            if (c >= 0x20 && c < 0x7F && c != '"' && c != '\\') {
+                literal.append(c);
+            } else if (c < 0x100) {
+                // Unicode escapes are translated before the source is parsed, so an escaped line feed would end the
+                // literal. Octal escapes aren't.
+                literal.append(String.format("\\%03o", (int) c));
+            } else {
+                literal.append(String.format("\\u%04X", (int) c));
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,172 @@
+package site.hackery.wonseok.cli;
+
+import site.hackery.wonseok.util.stream.HangulTranscoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Runs UTF-8 bytes through a transcoder and out to a channel.
+ * <p>
+ * Files are memory-mapped a window at a time and decoded straight from the mapping, and output is only written once
+ * a large buffer fills, so nothing is copied through a stream and the channel sees a few big writes.
+ */
+final class TranscodingPipe {
+    // Large enough that mapping and writing costs are lost in the noise, small enough to map on 32-bit JVMs.
+    private static final long MAP_WINDOW = 64 << 20;
+    private static final int CHAR_BUFFER_SIZE = 64 << 10;
+    private static final int BYTE_BUFFER_SIZE = 1 << 20;
+
+    // The longest UTF-8 sequence, so that every window decodes at least one character.
+    private static final int MIN_MAP_WINDOW = 4;
+
+    private final HangulTranscoder transcoder;
+    private final WritableByteChannel output;
+    private final long mapWindow;
+
+    // Malformed input is replaced rather than failing the whole file, as logs are rarely perfectly clean.
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private final CharBuffer decoded = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    private final CharBuffer transcoded = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    private final ByteBuffer encoded = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+
+    TranscodingPipe(HangulTranscoder transcoder, WritableByteChannel output) {
+        this(transcoder, output, MAP_WINDOW);
+    }
+
+    /**
+     * @param mapWindow How many bytes of a file to map at a time. Only tests need anything but the default, to have
+     *                  characters split across windows without gigabytes of input.
+     */
+    TranscodingPipe(HangulTranscoder transcoder, WritableByteChannel output, long mapWindow) {
+        if (mapWindow < MIN_MAP_WINDOW) {
+            throw new IllegalArgumentException("The map window must be at least " + MIN_MAP_WINDOW + " bytes");
+        }
+
+        this.transcoder = transcoder;
+        this.output = output;
+        this.mapWindow = mapWindow;
+    }
+
+    /**
+     * Transcodes a whole file, then flushes the output.
+     */
+    void transfer(Path input) throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = 0;
+
+            do {
+                long length = Math.min(mapWindow, size - offset);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+
+                feed(window, offset + length == size);
+
+                // A character split across windows is left undecoded, and decoded from the start of the next one.
+                offset += window.position();
+            } while (offset < size);
+        }
+
+        finish();
+    }
+
+    /**
+     * Transcodes everything up to the end of a channel which can't be mapped, like standard input, then flushes the
+     * output.
+     */
+    void transfer(ReadableByteChannel input) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+        boolean endOfInput = false;
+
+        while (!endOfInput) {
+            endOfInput = input.read(buffer) == -1;
+
+            buffer.flip();
+            feed(buffer, endOfInput);
+            buffer.compact();
+        }
+
+        finish();
+    }
+
+    private void feed(ByteBuffer bytes, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = decoder.decode(bytes, decoded, endOfInput);
+
+            decoded.flip();
+            transcode(false);
+            decoded.compact();
+
+            if (result.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    private void finish() throws IOException {
+        decoder.flush(decoded);
+        decoded.flip();
+        transcode(true);
+        decoded.compact();
+
+        transcoded.flip();
+        encode(true);
+
+        while (encoder.flush(encoded).isOverflow()) {
+            write();
+        }
+        write();
+
+        decoder.reset();
+        encoder.reset();
+        transcoder.reset();
+    }
+
+    private void transcode(boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = transcoder.transcode(decoded, transcoded, endOfInput);
+
+            transcoded.flip();
+            encode(false);
+            transcoded.compact();
+
+            if (result.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        while (encoder.encode(transcoded, encoded, endOfInput).isOverflow()) {
+            write();
+        }
+    }
+
+    private void write() throws IOException {
+        encoded.flip();
+
+        while (encoded.hasRemaining()) {
+            output.write(encoded);
+        }
+
+        encoded.clear();
+    }
+}
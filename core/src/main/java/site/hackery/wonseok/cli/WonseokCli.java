@@ -0,0 +1,120 @@
+package site.hackery.wonseok.cli;
+
+import site.hackery.wonseok.util.keymap.Keymap;
+import site.hackery.wonseok.util.keymap.KoreanKeymaps;
+import site.hackery.wonseok.util.stream.ComposingTranscoder;
+import site.hackery.wonseok.util.stream.DecomposingTranscoder;
+import site.hackery.wonseok.util.stream.HangulTranscoder;
+import site.hackery.wonseok.util.stream.KeystrokeTranscoder;
+import site.hackery.wonseok.util.stream.NormalizingTranscoder;
+import site.hackery.wonseok.util.stream.RomajaTranscoder;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Converts UTF-8 text files from the command line, for batch jobs that have nothing to do with the game.
+ */
+public class WonseokCli {
+    // Kept to ASCII, since consoles can't be relied on to show Hangul.
+    private static final String USAGE = String.join("\n",
+            "Usage: java -jar wonseok-core.jar <command> <input> <output>",
+            "",
+            "Commands:",
+            "  keys <layout>  Types the input as QWERTY keystrokes with a Korean layout, i.e. 'dkssud' into Hangul.",
+            "  compose        Composes runs of jamo into syllables.",
+            "  decompose      Atomically decomposes syllables into jamo.",
+            "  romaja         Transliterates romanized Korean into Hangul.",
+            "  normalize      Composes decomposed (NFD) Hangul, and turns any conjoining jamo left into compatibility jamo.",
+            "",
+            "Input and output are paths, or '-' for standard input and output.",
+            "");
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            usage(null);
+            return;
+        }
+
+        HangulTranscoder transcoder;
+        int files = 1;
+
+        switch (args[0]) {
+            case "keys":
+                Keymap keymap = KoreanKeymaps.get(args[1]);
+
+                if (keymap == null) {
+                    StringBuilder layouts = new StringBuilder();
+                    for (Keymap layout : KoreanKeymaps.all()) {
+                        layouts.append(layouts.length() == 0 ? "" : ", ").append(layout.getId());
+                    }
+
+                    usage("Expected one of these layouts: " + layouts);
+                    return;
+                }
+
+                transcoder = new KeystrokeTranscoder(keymap);
+                files = 2;
+                break;
+            case "compose":
+                transcoder = new ComposingTranscoder();
+                break;
+            case "decompose":
+                transcoder = new DecomposingTranscoder();
+                break;
+            case "romaja":
+                transcoder = new RomajaTranscoder();
+                break;
+            case "normalize":
+                transcoder = new NormalizingTranscoder();
+                break;
+            default:
+                usage("Unknown command: " + args[0]);
+                return;
+        }
+
+        if (args.length != files + 2) {
+            usage("Unexpected arguments: " + Arrays.toString(Arrays.copyOfRange(args, files, args.length)));
+            return;
+        }
+
+        try {
+            run(transcoder, args[files], args[files + 1]);
+        } catch (IOException e) {
+            System.err.println("wonseok: " + e);
+            System.exit(1);
+        }
+    }
+
+    private static void run(HangulTranscoder transcoder, String input, String output) throws IOException {
+        // Standard output is written through its file descriptor, bypassing System.out and its locking.
+        try (WritableByteChannel out = output.equals("-")
+                ? new FileOutputStream(FileDescriptor.out).getChannel()
+                : FileChannel.open(Paths.get(output), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            TranscodingPipe pipe = new TranscodingPipe(transcoder, out);
+
+            if (input.equals("-")) {
+                pipe.transfer(new FileInputStream(FileDescriptor.in).getChannel());
+            } else {
+                pipe.transfer(Paths.get(input));
+            }
+        }
+    }
+
+    private static void usage(String error) {
+        if (error != null) {
+            System.err.println("wonseok: " + error);
+        }
+
+        System.err.print(USAGE);
+        System.exit(2);
+    }
+}
@@ -0,0 +1,365 @@
+package site.hackery.wonseok.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds strings by their initial consonants (초성), i.e. 'ㅇㄴ' finds '안녕'.
+ * <p>
+ * Each string is reduced to a key once, when it's added, by replacing its syllables with their initial consonants.
+ * Queries are reduced the same way, so they can mix syllables and consonants ('안ㄴ'). Other characters are kept,
+ * ignoring case, and decomposed (NFD) text is composed first.
+ * <p>
+ * The keys are kept in two sorted arrays: one of whole keys, for prefix queries, and one of every suffix of every key
+ * (a generalised suffix array), for substring queries. Both are answered with a binary search, without looking at
+ * strings that don't match.
+ */
+public class ChoseongIndex {
+    private static final int SYLLABLES_PER_CHOSEONG = 21 * 28;
+
+    // Strings and their keys by id. Removed strings leave null behind, and their ids are reused by the next strings
+    // added, so that adding and removing strings doesn't grow the index.
+    private String[] texts = new String[16];
+    private char[][] keys = new char[16][];
+    private int nextId;
+    private int[] freeIds = new int[16];
+    private int freeIdCount;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    // Ids sorted by key.
+    private long[] byKey = new long[16];
+    private int byKeyCount;
+
+    // Suffixes sorted by their text, packed as id << 32 | offset.
+    private long[] suffixes = new long[64];
+    private int suffixCount;
+
+    // Used to skip strings which match a substring query more than once.
+    private int[] seen = new int[16];
+    private int queryStamp;
+
+    /**
+     * Reduces text to its initial consonants, i.e. '안녕 ABC' to 'ㅇㄴ abc'.
+     */
+    public static String choseongKey(CharSequence text) {
+        return new String(key(text));
+    }
+
+    private static char[] key(CharSequence text) {
+        // Decomposed text is composed first, so that it has the same key.
+        char[] key = text.toString().toCharArray();
+        int length = HangulNormalizer.compose(key, 0, key.length);
+        HangulNormalizer.toCompatibility(key, 0, length);
+
+        for (int i = 0; i < length; i++) {
+            char c = key[i];
+
+            if (HangulParser.withinHangulSyllables(c)) {
+                key[i] = HangulParser.choseong((c - 0xAC00) / SYLLABLES_PER_CHOSEONG);
+            } else {
+                key[i] = Character.toLowerCase(c);
+            }
+        }
+
+        return length == key.length ? key : Arrays.copyOf(key, length);
+    }
+
+    /**
+     * @return Whether the string was added, or false if it was already in the index.
+     */
+    public boolean add(String text) {
+        if (ids.containsKey(text)) {
+            return false;
+        }
+
+        int id = store(text);
+
+        // Reused ids can be lower than those of entries with equal text, so entries are placed by id too.
+        int position = -(search(byKey, byKeyCount, keys[id], 0, keys[id].length, pack(id, 0)) + 1);
+        byKey = insert(byKey, byKeyCount++, position, pack(id, 0));
+
+        for (int offset = 0; offset < keys[id].length; offset++) {
+            long entry = pack(id, offset);
+            position = -(search(suffixes, suffixCount, keys[id], offset, keys[id].length, entry) + 1);
+            suffixes = insert(suffixes, suffixCount++, position, entry);
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds many strings at once, which is much faster than adding them one at a time.
+     */
+    public void addAll(Collection<String> texts) {
+        for (String text : texts) {
+            if (ids.containsKey(text)) {
+                continue;
+            }
+
+            int id = store(text);
+
+            byKey = grow(byKey, byKeyCount + 1);
+            byKey[byKeyCount++] = pack(id, 0);
+
+            suffixes = grow(suffixes, suffixCount + keys[id].length);
+            for (int offset = 0; offset < keys[id].length; offset++) {
+                suffixes[suffixCount++] = pack(id, offset);
+            }
+        }
+
+        sort(byKey, byKeyCount);
+        sort(suffixes, suffixCount);
+    }
+
+    /**
+     * @return Whether the string was removed, or false if it wasn't in the index.
+     */
+    public boolean remove(String text) {
+        Integer boxedId = ids.remove(text);
+        if (boxedId == null) {
+            return false;
+        }
+
+        int id = boxedId;
+        char[] key = keys[id];
+
+        removeEntry(byKey, byKeyCount--, id, 0, key);
+        for (int offset = 0; offset < key.length; offset++) {
+            removeEntry(suffixes, suffixCount--, id, offset, key);
+        }
+
+        texts[id] = null;
+        keys[id] = null;
+
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIdCount * 2);
+        }
+
+        freeIds[freeIdCount++] = id;
+        return true;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return Every string whose initial consonants start with those of the query, in order of their keys.
+     */
+    public List<String> findByPrefix(CharSequence query) {
+        char[] key = key(query);
+        List<String> results = new ArrayList<>();
+
+        for (int i = lowerBound(byKey, byKeyCount, key); i < byKeyCount && startsWith(byKey[i], key); i++) {
+            results.add(texts[id(byKey[i])]);
+        }
+
+        return results;
+    }
+
+    /**
+     * @return Every string whose initial consonants contain those of the query.
+     */
+    public List<String> findBySubstring(CharSequence query) {
+        char[] key = key(query);
+        List<String> results = new ArrayList<>();
+
+        if (++queryStamp == 0) {
+            Arrays.fill(seen, 0);
+            queryStamp = 1;
+        }
+
+        for (int i = lowerBound(suffixes, suffixCount, key); i < suffixCount && startsWith(suffixes[i], key); i++) {
+            int id = id(suffixes[i]);
+
+            if (seen[id] != queryStamp) {
+                seen[id] = queryStamp;
+                results.add(texts[id]);
+            }
+        }
+
+        return results;
+    }
+
+    private int store(String text) {
+        if (freeIdCount > 0) {
+            int id = freeIds[--freeIdCount];
+
+            texts[id] = text;
+            keys[id] = key(text);
+            ids.put(text, id);
+            return id;
+        }
+
+        int id = nextId++;
+
+        if (id == texts.length) {
+            texts = Arrays.copyOf(texts, id * 2);
+            keys = Arrays.copyOf(keys, id * 2);
+            seen = Arrays.copyOf(seen, id * 2);
+        }
+
+        texts[id] = text;
+        keys[id] = key(text);
+        ids.put(text, id);
+        return id;
+    }
+
+    private void removeEntry(long[] entries, int count, int id, int offset, char[] key) {
+        // Entries with equal text are ordered by id and offset, so the exact entry can be found.
+        int position = search(entries, count, key, offset, key.length, pack(id, offset));
+        System.arraycopy(entries, position + 1, entries, position, count - position - 1);
+    }
+
+    private static long pack(int id, int offset) {
+        return (long) id << 32 | offset;
+    }
+
+    private static int id(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private static int offset(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Compares the text of an entry with key[from, to), breaking ties by the entry itself if {@code tiebreak} is true.
+     */
+    private int compare(long entry, char[] key, int from, int to, boolean tiebreak, long other) {
+        char[] entryKey = keys[id(entry)];
+        int i = offset(entry);
+        int j = from;
+
+        while (i < entryKey.length && j < to) {
+            if (entryKey[i] != key[j]) {
+                return entryKey[i] - key[j];
+            }
+
+            i++;
+            j++;
+        }
+
+        int lengths = (entryKey.length - i) - (to - j);
+        if (lengths != 0 || !tiebreak) {
+            return lengths;
+        }
+
+        return Long.compare(entry, other);
+    }
+
+    private int compare(long a, long b) {
+        char[] key = keys[id(b)];
+        return compare(a, key, offset(b), key.length, true, b);
+    }
+
+    /**
+     * A binary search for an entry, whose text is key[from, to). Entries with equal text are in order of id, and then
+     * offset, so the search finds exactly that entry, or where it belongs.
+     *
+     * @return The position of the entry, or {@code -(insertion point) - 1} if it isn't there.
+     */
+    private int search(long[] entries, int count, char[] key, int from, int to, long entry) {
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(entries[middle], key, from, to, true, entry);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /**
+     * @return The position of the first entry whose text isn't less than the key.
+     */
+    private int lowerBound(long[] entries, int count, char[] key) {
+        int low = 0;
+        int high = count;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (compare(entries[middle], key, 0, key.length, false, 0) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private boolean startsWith(long entry, char[] key) {
+        char[] entryKey = keys[id(entry)];
+        int offset = offset(entry);
+
+        if (entryKey.length - offset < key.length) {
+            return false;
+        }
+
+        for (int i = 0; i < key.length; i++) {
+            if (entryKey[offset + i] != key[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long[] grow(long[] entries, int required) {
+        return required <= entries.length ? entries : Arrays.copyOf(entries, Math.max(required, entries.length * 2));
+    }
+
+    private static long[] insert(long[] entries, int count, int position, long entry) {
+        entries = grow(entries, count + 1);
+        System.arraycopy(entries, position, entries, position + 1, count - position);
+        entries[position] = entry;
+        return entries;
+    }
+
+    /**
+     * A merge sort by entry text, then by the entries themselves, since entries can't be sorted with a comparator
+     * without boxing them.
+     */
+    private void sort(long[] entries, int count) {
+        long[] buffer = new long[count];
+
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count - width; low += width * 2) {
+                int middle = low + width;
+                int high = Math.min(low + width * 2, count);
+
+                if (compare(entries[middle - 1], entries[middle]) <= 0) {
+                    continue; // Already in order.
+                }
+
+                System.arraycopy(entries, low, buffer, low, high - low);
+
+                int i = low;
+                int j = middle;
+                for (int k = low; k < high; k++) {
+                    if (j >= high || (i < middle && compare(buffer[i], buffer[j]) <= 0)) {
+                        entries[k] = buffer[i++];
+                    } else {
+                        entries[k] = buffer[j++];
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package site.hackery.wonseok.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Sorts Korean text by its 자모, rather than by its UTF-16 code units.
+ * <p>
+ * Code unit order happens to sort whole syllables correctly, but puts compatibility 자모 (as in 'ㄱ' or a name like
+ * 'ㅋㅋ') in a block of their own before every syllable, and conjoining 자모 somewhere else entirely. Here syllables
+ * and both kinds of 자모 are broken down into the same weights, so '가', 'ㄱㅏ' and its conjoining form all sort
+ * together, and a lone 'ㄱ' sorts just before '가'. Anything else sorts by its code unit, ignoring case, so Latin
+ * letters, digits and Hanja all sort before Hangul.
+ * <p>
+ * Comparing two strings this way means breaking both down, so sorting many strings uses {@link Key}s, which do that
+ * once per string. Most comparisons of keys only compare a single long.
+ */
+public class HangulCollator implements Comparator<CharSequence> {
+    public enum Order {
+        /**
+         * Dictionary order: 가, 각, 간, 나.
+         */
+        JAMO,
+        /**
+         * Orders by the initial consonants (초성) of every syllable first, then as {@link #JAMO}. Text with the same
+         * initial consonants sorts together, as in {@link ChoseongIndex}, i.e. 가나, 가니, 거누, 가다.
+         */
+        CHOSEONG_FIRST
+    }
+
+    // Sorting this many keys is split across threads.
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    // 자모 are weighted in the space freed up by the syllables, which are always broken down. Final consonants must
+    // weigh more than initial ones, so that 가기 sorts before 각, as 가 does.
+    private static final int CHOSEONG_WEIGHT = 0xAC01;
+    private static final int JUNGSEONG_WEIGHT = 0xAC20;
+    private static final int JONGSEONG_WEIGHT = 0xAC40;
+
+    private static final char CONJOINING_CHOSEONG = 0x1100;
+    private static final char CONJOINING_JUNGSEONG = 0x1161;
+    private static final char CONJOINING_JONGSEONG = 0x11A8;
+
+    private final Order order;
+
+    public HangulCollator() {
+        this(Order.JAMO);
+    }
+
+    public HangulCollator(Order order) {
+        this.order = order;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    @Override
+    public int compare(CharSequence a, CharSequence b) {
+        return getKey(a).compareTo(getKey(b));
+    }
+
+    /**
+     * Sorts a list in place.
+     */
+    public void sort(List<String> list) {
+        String[] array = list.toArray(new String[list.size()]);
+        sort(array);
+
+        ListIterator<String> iterator = list.listIterator();
+        for (String text : array) {
+            iterator.next();
+            iterator.set(text);
+        }
+    }
+
+    /**
+     * Sorts an array in place.
+     */
+    public void sort(String[] array) {
+        Key[] keys = new Key[array.length];
+        for (int i = 0; i < array.length; i++) {
+            keys[i] = getKey(array[i]);
+        }
+
+        if (keys.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(keys);
+        } else {
+            Arrays.sort(keys);
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            array[i] = keys[i].source;
+        }
+    }
+
+    /**
+     * Breaks text down into a key, which compares to other keys from this collator as the text would.
+     */
+    public Key getKey(CharSequence text) {
+        int[] weights = new int[3];
+
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            length += weigh(text.charAt(i), weights);
+        }
+
+        if (order == Order.CHOSEONG_FIRST) {
+            // The initial consonants and a separator come first.
+            length += text.length() + 1;
+        }
+
+        Key key = new Key(text.toString(), length);
+
+        if (order == Order.CHOSEONG_FIRST) {
+            for (int i = 0; i < text.length(); i++) {
+                weigh(text.charAt(i), weights);
+                key.put(weights[0]);
+            }
+
+            key.put(0);
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            int count = weigh(text.charAt(i), weights);
+
+            for (int j = 0; j < count; j++) {
+                key.put(weights[j]);
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * Weighs a character, breaking down syllables and 자모.
+     *
+     * @param out Where to write the weights, which needs room for 3.
+     * @return The number of weights written.
+     */
+    private static int weigh(char c, int[] out) {
+        if (HangulParser.withinHangulSyllables(c)) {
+            int base = c - 0xAC00;
+            int jongseong = base % 28;
+            base /= 28;
+
+            out[0] = CHOSEONG_WEIGHT + base / 21;
+            out[1] = JUNGSEONG_WEIGHT + base % 21;
+
+            if (jongseong == 0) {
+                return 2;
+            }
+
+            out[2] = JONGSEONG_WEIGHT + jongseong - 1;
+            return 3;
+        }
+
+        if (HangulParser.withinHangulJamo(c)) {
+            int index;
+
+            if ((index = HangulParser.choseongIndex(c)) != -1) {
+                out[0] = CHOSEONG_WEIGHT + index;
+                return 1;
+            }
+
+            if ((index = HangulParser.jungseongIndex(c)) != -1) {
+                out[0] = JUNGSEONG_WEIGHT + index;
+                return 1;
+            }
+
+            // Consonant blocks like 'ㄳ' can only end a syllable.
+            if ((index = HangulParser.jongseongIndex(c)) != -1) {
+                out[0] = JONGSEONG_WEIGHT + index;
+                return 1;
+            }
+        }
+
+        if (c >= CONJOINING_CHOSEONG && c < CONJOINING_CHOSEONG + 19) {
+            out[0] = CHOSEONG_WEIGHT + c - CONJOINING_CHOSEONG;
+            return 1;
+        }
+
+        if (c >= CONJOINING_JUNGSEONG && c < CONJOINING_JUNGSEONG + 21) {
+            out[0] = JUNGSEONG_WEIGHT + c - CONJOINING_JUNGSEONG;
+            return 1;
+        }
+
+        if (c >= CONJOINING_JONGSEONG && c < CONJOINING_JONGSEONG + 27) {
+            out[0] = JONGSEONG_WEIGHT + c - CONJOINING_JONGSEONG;
+            return 1;
+        }
+
+        // Anything else sorts by its code unit, including old Hangul that doesn't fit in a modern syllable.
+        out[0] = Character.toLowerCase(c);
+        return 1;
+    }
+
+    /**
+     * A string, broken down into weights by a {@link HangulCollator}.
+     * <p>
+     * Each weight is two bytes, compared as unsigned. The first four are packed into a long, which decides most
+     * comparisons on its own, and the rest are only compared when those are equal. Keys that weigh the same, like
+     * "Steve" and "steve", are ordered by their text, so that sorting is deterministic.
+     */
+    public static final class Key implements Comparable<Key> {
+        private final String source;
+        private final int length;
+        private long prefix;
+        private final byte[] rest;
+
+        private int position;
+
+        private Key(String source, int weights) {
+            this.source = source;
+            this.length = weights * 2;
+            this.rest = new byte[Math.max(0, length - 8)];
+        }
+
+        private void put(int weight) {
+            if (position < 8) {
+                prefix |= (long) weight << (48 - position * 8);
+            } else {
+                rest[position - 8] = (byte) (weight >>> 8);
+                rest[position - 7] = (byte) weight;
+            }
+
+            position += 2;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * @return The key as bytes, which compare as unsigned bytes in the same order as the key.
+         */
+        public byte[] toByteArray() {
+            byte[] bytes = new byte[length];
+
+            for (int i = 0; i < Math.min(length, 8); i++) {
+                bytes[i] = (byte) (prefix >>> (56 - i * 8));
+            }
+
+            System.arraycopy(rest, 0, bytes, 8 > length ? length : 8, rest.length);
+            return bytes;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            if (prefix != other.prefix) {
+                return Long.compareUnsigned(prefix, other.prefix);
+            }
+
+            int common = Math.min(rest.length, other.rest.length);
+            for (int i = 0; i < common; i++) {
+                if (rest[i] != other.rest[i]) {
+                    return (rest[i] & 0xFF) - (other.rest[i] & 0xFF);
+                }
+            }
+
+            if (length != other.length) {
+                return length - other.length;
+            }
+
+            return source.compareTo(other.source);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && compareTo((Key) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return source.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return source;
+        }
+    }
+}
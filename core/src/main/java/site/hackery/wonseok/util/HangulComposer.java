@@ -0,0 +1,165 @@
+package site.hackery.wonseok.util;
+
+/**
+ * A stateful 자모 composer for 두벌식 layouts, which builds up one syllable at a time as 자모 are typed.
+ * <p>
+ * Each call to {@link #compose(char)} advances the composer in constant time, and may <i>commit</i> a finished
+ * character that can no longer change. Whatever is still being composed is available as the <i>preedit</i>
+ * character from {@link #getPreedit()}.
+ * <p>
+ * Since 두벌식 consonants don't say whether they start or end a syllable, a final consonant moves over to the next
+ * syllable when a vowel follows it.
+ */
+public class HangulComposer implements JamoComposer {
+    private char choseong;
+    private char jungseong;
+    private char jongseong;
+
+    @Override
+    public boolean canCompose(char jamo) {
+        return HangulParser.isJungseong(jamo) || HangulParser.choseongIndex(jamo) != -1 || HangulParser.isJongseong(jamo);
+    }
+
+    /**
+     * Feeds a single 자모 into the composer.
+     *
+     * @param jamo A basic (or compound) Hangul compatibility 자모.
+     * @return The character committed by this 자모, or 0 if nothing was committed.
+     */
+    @Override
+    public char compose(char jamo) {
+        if (HangulParser.isJungseong(jamo)) {
+            return composeVowel(jamo);
+        }
+
+        if (HangulParser.choseongIndex(jamo) != -1 || HangulParser.isJongseong(jamo)) {
+            return composeConsonant(jamo);
+        }
+
+        throw new IllegalArgumentException("Not a composable Hangul jamo: " + jamo);
+    }
+
+    private char composeVowel(char vowel) {
+        if (jongseong != 0) {
+            // The final consonant moves over to become the initial consonant of the next syllable, i.e. 핫 + ㅔ = 하세.
+            // Consonant blocks only give up their second half, i.e. 맗 + ㅐ = 말해.
+            char committed;
+            int split = HangulParser.split(jongseong);
+
+            if (split != 0) {
+                committed = HangulParser.constructSyllable(choseong, jungseong, (char) (split >>> 16));
+                choseong = (char) split;
+            } else {
+                committed = HangulParser.constructSyllable(choseong, jungseong, (char) 0);
+                choseong = jongseong;
+            }
+
+            jungseong = vowel;
+            jongseong = 0;
+            return committed;
+        }
+
+        if (jungseong != 0) {
+            char joined = HangulParser.join(jungseong, vowel);
+
+            if (joined != 0) {
+                jungseong = joined;
+                return 0;
+            }
+
+            char committed = getPreedit();
+            choseong = 0;
+            jungseong = vowel;
+            return committed;
+        }
+
+        if (choseong != 0 && HangulParser.choseongIndex(choseong) == -1) {
+            // A lone consonant block like 'ㄳ' can't start a syllable, so split it and keep the second half.
+            int split = HangulParser.split(choseong);
+            choseong = (char) split;
+            jungseong = vowel;
+            return (char) (split >>> 16);
+        }
+
+        jungseong = vowel;
+        return 0;
+    }
+
+    private char composeConsonant(char consonant) {
+        if (jungseong != 0 && choseong != 0) {
+            if (jongseong == 0 && HangulParser.isJongseong(consonant)) {
+                jongseong = consonant;
+                return 0;
+            }
+
+            if (jongseong != 0) {
+                char joined = HangulParser.join(jongseong, consonant);
+
+                if (joined != 0) {
+                    jongseong = joined;
+                    return 0;
+                }
+            }
+        } else if (jungseong == 0 && choseong != 0) {
+            char joined = HangulParser.join(choseong, consonant);
+
+            if (joined != 0) {
+                choseong = joined;
+                return 0;
+            }
+        }
+
+        char committed = getPreedit();
+        reset();
+        choseong = consonant;
+        return committed;
+    }
+
+    /**
+     * @return The character currently being composed, or 0 if there isn't one.
+     */
+    @Override
+    public char getPreedit() {
+        if (choseong != 0 && jungseong != 0) {
+            return HangulParser.constructSyllable(choseong, jungseong, jongseong);
+        }
+
+        return choseong != 0 ? choseong : jungseong;
+    }
+
+    /**
+     * @return Whether there is a character being composed.
+     */
+    @Override
+    public boolean isComposing() {
+        return choseong != 0 || jungseong != 0;
+    }
+
+    /**
+     * Ends composition, committing the character being composed.
+     *
+     * @return The committed character, or 0 if there wasn't one.
+     */
+    @Override
+    public char commit() {
+        char committed = getPreedit();
+        reset();
+        return committed;
+    }
+
+    /**
+     * Copies the composition state of another composer into this one.
+     */
+    public void copyFrom(HangulComposer other) {
+        choseong = other.choseong;
+        jungseong = other.jungseong;
+        jongseong = other.jongseong;
+    }
+
+    @Override
+    public void reset() {
+        choseong = 0;
+        jungseong = 0;
+        jongseong = 0;
+    }
+}
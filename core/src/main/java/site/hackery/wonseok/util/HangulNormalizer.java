@@ -0,0 +1,286 @@
+package site.hackery.wonseok.util;
+
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+
+/**
+ * Converts Hangul between precomposed syllables, conjoining 자모 (U+1100 to U+11FF) and compatibility 자모
+ * (U+3130 to U+318F).
+ * <p>
+ * Text from servers and files is often decomposed (NFD), spelling syllables out with conjoining 자모, while the rest
+ * of Wonseok only understands syllables and compatibility 자모. This does the Hangul part of NFC and NFD with
+ * arithmetic and the tables in {@link HangulParser}, without going through {@link java.text.Normalizer}, and works
+ * on buffers in place where the text doesn't grow. Only modern 자모 are converted; old Hangul passes through as-is.
+ */
+public final class HangulNormalizer {
+    private static final int SYLLABLE_BASE = 0xAC00;
+    private static final int SYLLABLE_COUNT = 19 * 21 * 28;
+
+    private static final int CHOSEONG_BASE = 0x1100;
+    private static final int JUNGSEONG_BASE = 0x1161;
+    // Final consonants start at U+11A8, but are counted from 1 like they are in a syllable.
+    private static final int JONGSEONG_BASE = 0x11A7;
+
+    private static final int CHOSEONG_COUNT = 19;
+    private static final int JUNGSEONG_COUNT = 21;
+    private static final int JONGSEONG_COUNT = 28;
+
+    private HangulNormalizer() {
+    }
+
+    /**
+     * Decomposes every syllable into conjoining 자모, as in NFD, leaving everything else as-is.
+     *
+     * @param out Needs room for up to three times <code>length</code> characters.
+     * @return The number of characters written.
+     */
+    public static int decompose(char[] in, int inOffset, int length, char[] out, int outOffset) {
+        int position = outOffset;
+
+        for (int i = inOffset; i < inOffset + length; i++) {
+            int syllable = in[i] - SYLLABLE_BASE;
+
+            if (syllable < 0 || syllable >= SYLLABLE_COUNT) {
+                out[position++] = in[i];
+                continue;
+            }
+
+            int jongseong = syllable % JONGSEONG_COUNT;
+            syllable /= JONGSEONG_COUNT;
+
+            out[position++] = (char) (CHOSEONG_BASE + syllable / JUNGSEONG_COUNT);
+            out[position++] = (char) (JUNGSEONG_BASE + syllable % JUNGSEONG_COUNT);
+
+            if (jongseong != 0) {
+                out[position++] = (char) (JONGSEONG_BASE + jongseong);
+            }
+        }
+
+        return position - outOffset;
+    }
+
+    /**
+     * Decomposes everything remaining in <code>in</code> into <code>out</code>, as in NFD.
+     *
+     * @throws BufferOverflowException If <code>out</code> runs out of room. <code>in</code> is left after the last
+     *                                 character that fit.
+     */
+    public static void decompose(CharBuffer in, CharBuffer out) {
+        if (in.hasArray() && out.hasArray() && out.remaining() >= in.remaining() * 3) {
+            int written = decompose(in.array(), in.arrayOffset() + in.position(), in.remaining(),
+                    out.array(), out.arrayOffset() + out.position());
+
+            in.position(in.limit());
+            out.position(out.position() + written);
+            return;
+        }
+
+        while (in.hasRemaining()) {
+            char c = in.get(in.position());
+            int syllable = c - SYLLABLE_BASE;
+
+            if (syllable < 0 || syllable >= SYLLABLE_COUNT) {
+                if (!out.hasRemaining()) {
+                    throw new BufferOverflowException();
+                }
+
+                out.put(c);
+                in.get();
+                continue;
+            }
+
+            int jongseong = syllable % JONGSEONG_COUNT;
+            syllable /= JONGSEONG_COUNT;
+
+            if (out.remaining() < (jongseong == 0 ? 2 : 3)) {
+                throw new BufferOverflowException();
+            }
+
+            out.put((char) (CHOSEONG_BASE + syllable / JUNGSEONG_COUNT));
+            out.put((char) (JUNGSEONG_BASE + syllable % JUNGSEONG_COUNT));
+
+            if (jongseong != 0) {
+                out.put((char) (JONGSEONG_BASE + jongseong));
+            }
+
+            in.get();
+        }
+    }
+
+    /**
+     * Composes conjoining 자모 into syllables in place, as in NFC. Syllables without a final consonant also take a
+     * following conjoining final consonant. Anything which doesn't compose is left as-is.
+     *
+     * @return The length of the composed text, which is never longer than it was.
+     */
+    public static int compose(char[] text, int offset, int length) {
+        int position = offset;
+
+        for (int i = offset; i < offset + length; i++) {
+            char composed = position > offset ? compose(text[position - 1], text[i]) : 0;
+
+            if (composed != 0) {
+                text[position - 1] = composed;
+            } else {
+                text[position++] = text[i];
+            }
+        }
+
+        return position - offset;
+    }
+
+    /**
+     * Composes the text between the buffer's position and limit in place, as in NFC, moving the limit back to the
+     * end of the composed text.
+     */
+    public static void compose(CharBuffer text) {
+        if (text.hasArray()) {
+            int length = compose(text.array(), text.arrayOffset() + text.position(), text.remaining());
+            text.limit(text.position() + length);
+            return;
+        }
+
+        int start = text.position();
+        int position = start;
+
+        for (int i = start; i < text.limit(); i++) {
+            char composed = position > start ? compose(text.get(position - 1), text.get(i)) : 0;
+
+            if (composed != 0) {
+                text.put(position - 1, composed);
+            } else {
+                text.put(position++, text.get(i));
+            }
+        }
+
+        text.limit(position);
+    }
+
+    /**
+     * Composes a single pair, as in NFC: an initial consonant and a vowel, or a syllable without a final consonant and
+     * a final consonant.
+     *
+     * @return The syllable <code>last</code> and <code>next</code> compose into, or 0 if they don't.
+     */
+    public static char compose(char last, char next) {
+        int choseong = last - CHOSEONG_BASE;
+        int jungseong = next - JUNGSEONG_BASE;
+        if (choseong >= 0 && choseong < CHOSEONG_COUNT && jungseong >= 0 && jungseong < JUNGSEONG_COUNT) {
+            return (char) (SYLLABLE_BASE + (choseong * JUNGSEONG_COUNT + jungseong) * JONGSEONG_COUNT);
+        }
+
+        int syllable = last - SYLLABLE_BASE;
+        int jongseong = next - JONGSEONG_BASE;
+        if (syllable >= 0 && syllable < SYLLABLE_COUNT && syllable % JONGSEONG_COUNT == 0
+                && jongseong > 0 && jongseong < JONGSEONG_COUNT) {
+            return (char) (last + jongseong);
+        }
+
+        return 0;
+    }
+
+    /**
+     * @return Whether <code>next</code> can ever be composed on to the character before it, which is the case for
+     *         modern conjoining vowels and final consonants.
+     */
+    public static boolean composesWithPrevious(char next) {
+        int jungseong = next - JUNGSEONG_BASE;
+        int jongseong = next - JONGSEONG_BASE;
+
+        return jungseong >= 0 && jungseong < JUNGSEONG_COUNT || jongseong > 0 && jongseong < JONGSEONG_COUNT;
+    }
+
+    /**
+     * Replaces modern conjoining 자모 with their compatibility 자모 in place, i.e. U+1100 and U+11A8 both with 'ㄱ'.
+     * Compose first, or syllables spelled out in conjoining 자모 will come apart into separate 자모.
+     */
+    public static void toCompatibility(char[] text, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            char compatibility = toCompatibility(text[i]);
+
+            if (compatibility != 0) {
+                text[i] = compatibility;
+            }
+        }
+    }
+
+    public static void toCompatibility(CharBuffer text) {
+        for (int i = text.position(); i < text.limit(); i++) {
+            char compatibility = toCompatibility(text.get(i));
+
+            if (compatibility != 0) {
+                text.put(i, compatibility);
+            }
+        }
+    }
+
+    /**
+     * @return The compatibility 자모 for a modern conjoining 자모, or 0 if <code>jamo</code> isn't one.
+     */
+    public static char toCompatibility(char jamo) {
+        int index = jamo - CHOSEONG_BASE;
+        if (index >= 0 && index < CHOSEONG_COUNT) {
+            return HangulParser.choseong(index);
+        }
+
+        index = jamo - JUNGSEONG_BASE;
+        if (index >= 0 && index < JUNGSEONG_COUNT) {
+            return HangulParser.jungseong(index);
+        }
+
+        index = jamo - JONGSEONG_BASE;
+        if (index > 0 && index < JONGSEONG_COUNT) {
+            return HangulParser.jongseong(index - 1);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Replaces compatibility 자모 with conjoining 자모 in place. Compatibility 자모 don't say where in a syllable
+     * they go, so consonants become initial consonants, unless they can only be final, like 'ㄳ'.
+     */
+    public static void toConjoining(char[] text, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            char conjoining = toConjoining(text[i]);
+
+            if (conjoining != 0) {
+                text[i] = conjoining;
+            }
+        }
+    }
+
+    /**
+     * @return The conjoining 자모 for a compatibility 자모, or 0 if <code>jamo</code> isn't one.
+     * @see #toConjoining(char[], int, int)
+     */
+    public static char toConjoining(char jamo) {
+        int index = HangulParser.choseongIndex(jamo);
+        if (index != -1) {
+            return (char) (CHOSEONG_BASE + index);
+        }
+
+        index = HangulParser.jungseongIndex(jamo);
+        if (index != -1) {
+            return (char) (JUNGSEONG_BASE + index);
+        }
+
+        index = HangulParser.jongseongIndex(jamo);
+        if (index != -1) {
+            return (char) (JONGSEONG_BASE + 1 + index);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Normalizes text into what the rest of Wonseok expects: syllables, with any 자모 left over as compatibility 자모.
+     */
+    public static String normalize(CharSequence text) {
+        char[] chars = text.toString().toCharArray();
+        int length = compose(chars, 0, chars.length);
+
+        toCompatibility(chars, 0, length);
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,478 @@
+package site.hackery.wonseok.util;
+
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+public class HangulParser {
+    /**
+     * The first character of the Hangul Compatibility Jamo block, which every lookup table below is indexed from.
+     */
+    private static final char JAMO_BASE = 0x3130;
+    private static final int JAMO_COUNT = 0x60;
+
+    /**
+     * Atomically deconstructs a syllable into its constituent 자모.
+     * This method is <b>atomic</b>, meaning that vowels like 'ㅘ' are split into 'ㅗ, ㅏ' and
+     * consonant blocks like 'ㄼ' are split into 'ㄹ, ㅂ'.
+     *
+     * @param syllable A complete Hangul syllable.
+     * @return An array of constituent 자모. (technically 자소)
+     */
+    public static char[] deconstruct(char syllable) {
+        char[] buffer = new char[MAX_ATOMIC_JAMO];
+        return Arrays.copyOf(buffer, deconstruct(syllable, buffer, 0));
+    }
+
+    /**
+     * Atomically deconstructs a syllable into the given buffer, without allocating.
+     *
+     * @param syllable A complete Hangul syllable.
+     * @param out      The buffer to write into. Needs room for up to {@link #MAX_ATOMIC_JAMO} 자모.
+     * @param offset   The index in <code>out</code> to start writing at.
+     * @return The number of 자모 written, or 0 if <code>syllable</code> isn't a Hangul syllable.
+     */
+    public static int deconstruct(char syllable, char[] out, int offset) {
+        if (!withinHangulSyllables(syllable)) {
+            return 0;
+        }
+
+        int base = syllable - 0xAC00;
+        int jongseong = base % 28;
+        base /= 28;
+
+        int position = offset;
+        out[position++] = CHOSEONG[base / 21];
+        position += split(JUNGSEONG[base % 21], out, position);
+
+        if (jongseong != 0) {
+            position += split(JONGSEONG[jongseong - 1], out, position);
+        }
+
+        return position - offset;
+    }
+
+    /**
+     * Atomically deconstructs a syllable into the given buffer, advancing its position.
+     *
+     * @param syllable A complete Hangul syllable.
+     * @param out      The buffer to write into.
+     * @return The number of 자모 written, or 0 if <code>syllable</code> isn't a Hangul syllable.
+     * @throws BufferOverflowException If <code>out</code> doesn't have room for the deconstructed syllable.
+     */
+    public static int deconstruct(char syllable, CharBuffer out) {
+        if (!withinHangulSyllables(syllable)) {
+            return 0;
+        }
+
+        int base = syllable - 0xAC00;
+        int jongseong = base % 28;
+        base /= 28;
+
+        int split = SPLIT_TABLE[JUNGSEONG[base % 21] - JAMO_BASE];
+        int splitFinal = jongseong == 0 ? 0 : SPLIT_TABLE[JONGSEONG[jongseong - 1] - JAMO_BASE];
+
+        int length = 1 + (split == 0 ? 1 : 2) + (jongseong == 0 ? 0 : splitFinal == 0 ? 1 : 2);
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        out.put(CHOSEONG[base / 21]);
+        putSplit(JUNGSEONG[base % 21], split, out);
+
+        if (jongseong != 0) {
+            putSplit(JONGSEONG[jongseong - 1], splitFinal, out);
+        }
+
+        return length;
+    }
+
+    /**
+     * Deconstructs a syllable into its constituent Unicode 자모.
+     * This method is <b>non-atomic</b>, meaning that vowels like ㅘ will not be split into 'ㅗ, ㅏ',
+     * and consonant blocks like ㄼ will not be split into 'ㄹ, ㅂ'.
+     *
+     * @param syllable A complete Hangul syllable
+     * @return An array of constituent 자모.
+     */
+    public static char[] deconstructNonAtomic(char syllable) {
+        char[] buffer = new char[3];
+        return Arrays.copyOf(buffer, deconstructNonAtomic(syllable, buffer, 0));
+    }
+
+    /**
+     * Non-atomically deconstructs a syllable into the given buffer, without allocating.
+     *
+     * @param syllable A complete Hangul syllable.
+     * @param out      The buffer to write into. Needs room for up to 3 자모.
+     * @param offset   The index in <code>out</code> to start writing at.
+     * @return The number of 자모 written, or 0 if <code>syllable</code> isn't a Hangul syllable.
+     */
+    public static int deconstructNonAtomic(char syllable, char[] out, int offset) {
+        if (!withinHangulSyllables(syllable)) {
+            return 0;
+        }
+
+        int base = syllable - 0xAC00;
+
+        int jongseong = base % 28;
+        base /= 28;
+        int jungseong = base % 21;
+        base /= 21;
+        int choseong = base % 19;
+
+        out[offset] = CHOSEONG[choseong];
+        out[offset + 1] = JUNGSEONG[jungseong];
+
+        if (jongseong == 0) {
+            return 2;
+        }
+
+        out[offset + 2] = JONGSEONG[jongseong - 1];
+        return 3;
+    }
+
+    /**
+     * Atomically constructs a syllable from its constituent 자모
+     *
+     * @param jamo An array of basic 자모.
+     * @return A complete Hangul syllable.
+     */
+    public static String construct(char[] jamo) {
+        char[] buffer = new char[jamo.length];
+        return new String(buffer, 0, construct(jamo, 0, jamo.length, buffer, 0));
+    }
+
+    /**
+     * Atomically constructs syllables from basic 자모 into the given buffer, without allocating.
+     * The output is never longer than the input, so <code>out</code> may be the same array as <code>jamo</code>
+     * (as long as <code>outOffset &lt;= offset</code>) to construct in place.
+     *
+     * @param jamo      An array of basic 자모.
+     * @param offset    The index of the first 자모 in <code>jamo</code>.
+     * @param length    The number of 자모 to read.
+     * @param out       The buffer to write into. Needs room for <code>length</code> characters.
+     * @param outOffset The index in <code>out</code> to start writing at.
+     * @return The number of characters written.
+     */
+    public static int construct(char[] jamo, int offset, int length, char[] out, int outOffset) {
+        // Both passes only ever write at or behind the index they read from, so the second can run in place.
+        int joined = joinJamo(jamo, offset, length, out, outOffset);
+        return constructJoined(out, outOffset, joined);
+    }
+
+    /**
+     * Atomically constructs syllables from the remaining 자모 in <code>jamo</code> into <code>out</code>,
+     * advancing the position of both buffers.
+     *
+     * @param jamo A buffer of basic 자모.
+     * @param out  An array-backed buffer to write into, with at least <code>jamo.remaining()</code> characters free.
+     * @return The number of characters written.
+     * @throws BufferOverflowException  If <code>out</code> has less room than <code>jamo</code> has 자모.
+     * @throws IllegalArgumentException If <code>out</code> isn't backed by an accessible array.
+     */
+    public static int construct(CharBuffer jamo, CharBuffer out) {
+        int length = jamo.remaining();
+
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        if (!out.hasArray()) {
+            throw new IllegalArgumentException("Output buffer must be backed by an accessible array");
+        }
+
+        // Copy the input into the output buffer first, then construct over it in place.
+        char[] array = out.array();
+        int start = out.arrayOffset() + out.position();
+        jamo.get(array, start, length);
+
+        int written = construct(array, start, length, array, start);
+        out.position(out.position() + written);
+
+        return written;
+    }
+
+    private static int constructJoined(char[] jamo, int offset, int length) {
+        final int end = offset + length;
+
+        int position = offset;
+        int i = offset;
+        while (i <= end) {
+            int nextSize = calculateNextSyllableSize(jamo, i, end);
+
+            if (nextSize == 0) {
+                while (i < end) {
+                    jamo[position++] = jamo[i++];
+                }
+
+                break;
+            }
+
+            char syllable = constructInternal(jamo, i, i + nextSize);
+
+            if (syllable != 0) {
+                jamo[position++] = syllable;
+            } else {
+                for (int j = 0; j < nextSize; j++)
+                    jamo[position++] = jamo[i + j];
+            }
+
+            i += nextSize;
+        }
+
+        return position - offset;
+    }
+
+    private static char constructInternal(char[] jamo, int startIndex, int endIndex) {
+        int length = endIndex - startIndex;
+
+        if (length == 2) {
+            return constructSyllable(jamo[startIndex], jamo[startIndex + 1], (char) 0x00);
+        } else if (length == 3) {
+            return constructSyllable(jamo[startIndex], jamo[startIndex + 1], jamo[startIndex + 2]);
+        }
+
+        return 0x00;
+    }
+
+    /**
+     * Constructs a single syllable from its initial consonant, vowel and (optionally) final consonant.
+     *
+     * @param choseong  The initial consonant (초성).
+     * @param jungseong The vowel (중성).
+     * @param jongseong The final consonant (종성), or 0 for none.
+     * @return The syllable, or 0 if the 자모 can't make one up.
+     */
+    public static char constructSyllable(char choseong, char jungseong, char jongseong) {
+        int choseongIndex = choseongIndex(choseong);
+        int jungseongIndex = jungseongIndex(jungseong);
+        int jongseongIndex = jongseong == 0 ? 0 : jongseongIndex(jongseong) + 1;
+
+        if (choseongIndex == -1 || jungseongIndex == -1 || (jongseong != 0 && jongseongIndex == 0))
+            return 0x00;
+
+        return (char) (0xAC00 + choseongIndex * 21 * 28 + jungseongIndex * 28 + jongseongIndex);
+    }
+
+    private static int calculateNextSyllableSize(char[] jamo, int offset, int end) {
+        final int remainingJamo = end - offset;
+
+        if (remainingJamo > 2) {
+            if (isJongseong(jamo[offset + 2])) {
+                if (remainingJamo > 3 && isJungseong(jamo[offset + 3]))
+                    return 2;
+
+                return 3;
+            } else {
+                return 2;
+            }
+        }
+
+        if (remainingJamo == 2)
+            return remainingJamo;
+
+        return 0;
+    }
+
+    private static int joinJamo(char[] jamo, int offset, int length, char[] out, int outOffset) {
+        final int end = offset + length;
+
+        int position = outOffset;
+        for (int i = offset; i < end; i++) {
+            char c = jamo[i];
+
+            if (i >= end - 1) {
+                out[position++] = c;
+            } else {
+                char joined = join(c, jamo[i + 1]);
+
+                if (joined != 0 && i < end - 2 && isJungseong(jamo[i + 2])) {
+                    joined = 0;
+                }
+
+                if (joined != 0) {
+                    out[position++] = joined;
+                    i++;
+                } else {
+                    out[position++] = c;
+                }
+            }
+        }
+
+        return position - outOffset;
+    }
+
+    /**
+     * Joins two basic 자모 into a compound vowel or consonant block, for instance 'ㅗ, ㅏ' into 'ㅘ'.
+     *
+     * @param first  The first basic 자모.
+     * @param second The second basic 자모.
+     * @return The compound 자모, or 0 if the two can't be joined.
+     */
+    public static char join(char first, char second) {
+        int a = first - JAMO_BASE;
+        int b = second - JAMO_BASE;
+
+        if (a < 0 || a >= JAMO_COUNT || b < 0 || b >= JAMO_COUNT) {
+            return 0;
+        }
+
+        return JOIN_TABLE[a * JAMO_COUNT + b];
+    }
+
+    /**
+     * Splits a compound vowel or consonant block into its two basic 자모, for instance 'ㄼ' into 'ㄹ, ㅂ'.
+     * The result is packed into an int, with the first 자모 in the upper 16 bits and the second in the lower.
+     *
+     * @param jamo A 자모.
+     * @return The packed pair of basic 자모, or 0 if <code>jamo</code> isn't a compound.
+     */
+    public static int split(char jamo) {
+        int index = jamo - JAMO_BASE;
+        return index >= 0 && index < JAMO_COUNT ? SPLIT_TABLE[index] : 0;
+    }
+
+    private static int split(char jamo, char[] out, int offset) {
+        int split = SPLIT_TABLE[jamo - JAMO_BASE];
+
+        if (split == 0) {
+            out[offset] = jamo;
+            return 1;
+        }
+
+        out[offset] = (char) (split >>> 16);
+        out[offset + 1] = (char) split;
+        return 2;
+    }
+
+    private static void putSplit(char jamo, int split, CharBuffer out) {
+        if (split == 0) {
+            out.put(jamo);
+        } else {
+            out.put((char) (split >>> 16)).put((char) split);
+        }
+    }
+
+    /**
+     * @param jamo A 자모.
+     * @return The index of <code>jamo</code> as an initial consonant (초성), or -1 if it can't be one.
+     */
+    public static int choseongIndex(char jamo) {
+        int index = jamo - JAMO_BASE;
+        return index >= 0 && index < JAMO_COUNT ? CHOSEONG_INDEX[index] : -1;
+    }
+
+    /**
+     * @param jamo A 자모.
+     * @return The index of <code>jamo</code> as a vowel (중성), or -1 if it isn't one.
+     */
+    public static int jungseongIndex(char jamo) {
+        int index = jamo - JAMO_BASE;
+        return index >= 0 && index < JAMO_COUNT ? JUNGSEONG_INDEX[index] : -1;
+    }
+
+    /**
+     * @param jamo A 자모.
+     * @return The index of <code>jamo</code> as a final consonant (종성), or -1 if it can't be one.
+     *         Note that in a syllable, final consonants are offset by one, as 0 represents 'no final consonant'.
+     */
+    public static int jongseongIndex(char jamo) {
+        int index = jamo - JAMO_BASE;
+        return index >= 0 && index < JAMO_COUNT ? JONGSEONG_INDEX[index] : -1;
+    }
+
+    /**
+     * @param index The index of an initial consonant (초성), from 0 to 18.
+     * @return The initial consonant as a compatibility 자모.
+     */
+    public static char choseong(int index) {
+        return CHOSEONG[index];
+    }
+
+    /**
+     * @param index The index of a vowel (중성), from 0 to 20.
+     * @return The vowel as a compatibility 자모.
+     */
+    public static char jungseong(int index) {
+        return JUNGSEONG[index];
+    }
+
+    /**
+     * @param index The index of a final consonant (종성), from 0 to 26.
+     * @return The final consonant as a compatibility 자모.
+     */
+    public static char jongseong(int index) {
+        return JONGSEONG[index];
+    }
+
+    public static boolean isJungseong(char jamo) {
+        return jungseongIndex(jamo) != -1;
+    }
+
+    public static boolean isJongseong(char jamo) {
+        return jongseongIndex(jamo) != -1;
+    }
+
+    /**
+     * Checks if a character lies in the Unicode Hangul Syllables block
+     *
+     * @param codepoint A unicode codepoint
+     * @return Whether the character could represent a Hangul syllable
+     */
+    public static boolean withinHangulSyllables(int codepoint) {
+        // The first hangul character in Unicode is '가' - at 0xAC00
+        // The last hangul character in Unicode is '힟' - at 0xD79F
+        // (Source: http://www.unicode.org/charts/PDF/UAC00.pdf)
+
+        return 0xAC00 <= codepoint && codepoint <= 0xD7A3;
+    }
+
+    /**
+     * Checks if a character lies in the Unicode Hangul Compatibility Jamo block, which is the only kind of 자모 this
+     * class understands. See {@link HangulNormalizer} for conjoining 자모.
+     *
+     * @param codepoint A unicode codepoint
+     * @return Whether the character could represent a Hangul 자모.
+     */
+    public static boolean withinHangulJamo(int codepoint) {
+        // The first character in the Hangul Compatibility Jamo block is 'ㄱ' at 0x3131 (0x3130 is unassigned)
+        // The last character in the Hangul Compatibility Jamo block is the 옛한글 character 'ㆎ' at 0x318E
+        // (Source: http://www.unicode.org/charts/PDF/U3130.pdf)
+
+        return 0x3130 <= codepoint && codepoint <= 0x318F;
+    }
+
+    /**
+     * Checks if a character lies in the Unicode Hangul Jamo block, of conjoining 자모.
+     *
+     * @param codepoint A unicode codepoint
+     * @return Whether the character could represent a conjoining 자모.
+     */
+    public static boolean withinConjoiningJamo(int codepoint) {
+        // The first character in the Hangul Jamo block is 'ᄀ' at 0x1100
+        // The last character in the Hangul Jamo block is the 옛한글 character 'ᇿ' at 0x11FF
+        // (Source: http://www.unicode.org/charts/PDF/U1100.pdf)
+
+        return 0x1100 <= codepoint && codepoint <= 0x11FF;
+    }
+
+    /**
+     * The most 자모 a single syllable can atomically deconstruct into, e.g. '뷃' into 'ㅂ, ㅜ, ㅔ, ㄹ, ㅎ'.
+     */
+    public static final int MAX_ATOMIC_JAMO = 5;
+
+    // The tables are generated at build time by TableGenerator, so that loading this class doesn't build them.
+    private static final char[] CHOSEONG = HangulTables.CHOSEONG;
+    private static final char[] JUNGSEONG = HangulTables.JUNGSEONG;
+    private static final char[] JONGSEONG = HangulTables.JONGSEONG;
+
+    // Dense tables indexed by (jamo - JAMO_BASE), so that every lookup is a single array read.
+    private static final byte[] CHOSEONG_INDEX = HangulTables.CHOSEONG_INDEX;
+    private static final byte[] JUNGSEONG_INDEX = HangulTables.JUNGSEONG_INDEX;
+    private static final byte[] JONGSEONG_INDEX = HangulTables.JONGSEONG_INDEX;
+
+    // SPLIT_TABLE packs a compound's two halves into one int; JOIN_TABLE is a JAMO_COUNT x JAMO_COUNT grid of compounds.
+    private static final int[] SPLIT_TABLE = HangulTables.SPLIT_TABLE;
+    private static final char[] JOIN_TABLE = HangulTables.JOIN_TABLE;
+}
@@ -0,0 +1,42 @@
+package site.hackery.wonseok.util;
+
+/**
+ * Composes typed 자모 into syllables, one 자모 at a time.
+ * <p>
+ * Each 자모 may <i>commit</i> a finished character that can no longer change, while whatever is still being composed
+ * is available as the <i>preedit</i> character.
+ */
+public interface JamoComposer {
+    /**
+     * @param jamo A character typed through a keymap.
+     * @return Whether the character is a 자모 this composer can compose, rather than something to be output as-is.
+     */
+    boolean canCompose(char jamo);
+
+    /**
+     * Feeds a single 자모 into the composer.
+     *
+     * @param jamo A 자모 for which {@link #canCompose(char)} is true.
+     * @return The character committed by this 자모, or 0 if nothing was committed.
+     */
+    char compose(char jamo);
+
+    /**
+     * @return The character currently being composed, or 0 if there isn't one.
+     */
+    char getPreedit();
+
+    /**
+     * @return Whether there is a character being composed.
+     */
+    boolean isComposing();
+
+    /**
+     * Ends composition, committing the character being composed.
+     *
+     * @return The committed character, or 0 if there wasn't one.
+     */
+    char commit();
+
+    void reset();
+}
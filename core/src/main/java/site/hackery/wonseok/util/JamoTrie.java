@@ -0,0 +1,398 @@
+package site.hackery.wonseok.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Predicts words from the 자모 typed so far.
+ * <p>
+ * Words are keyed by their atomic 자모, so '하' is a prefix of '한' and '학', and '한' of '하늘', like they are while composing. The trie is
+ * flat: nodes are stored in breadth-first order across a few arrays, so the children of a node are next to each other
+ * and found with a binary search. Each node also knows the highest frequency under it, which lets completions be found
+ * best-first without visiting the whole subtree.
+ * <p>
+ * The trie can't be changed once it's built, and can be shared. Typing is followed by a {@link Cursor}.
+ */
+public class JamoTrie {
+    private final String[] words;
+    private final int[] frequencies;
+
+    // The children of node n are the nodes from firstChild[n] until firstChild[n + 1]. Node 0 is the root.
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] wordAt; // The word ending at each node, or -1.
+    private final int[] best; // The highest frequency of any word under each node, or -1.
+
+    /**
+     * @param words       The words to predict. If there are duplicates, the most frequent one is kept.
+     * @param frequencies How often each word is used. Can't be negative.
+     */
+    public JamoTrie(String[] words, int[] frequencies) {
+        if (words.length != frequencies.length) {
+            throw new IllegalArgumentException("Got " + words.length + " words but " + frequencies.length + " frequencies");
+        }
+
+        this.words = words.clone();
+        this.frequencies = frequencies.clone();
+
+        final char[][] keys = new char[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            if (frequencies[i] < 0) {
+                throw new IllegalArgumentException("Negative frequency for " + words[i]);
+            }
+
+            keys[i] = toJamo(words[i]);
+        }
+
+        Integer[] order = new Integer[words.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(keys[a], keys[b]));
+
+        // The words under each node are a range of the sorted order, so nodes are built by splitting ranges.
+        int capacity = Math.max(16, words.length * 2);
+        char[] labels = new char[capacity];
+        int[] firstChild = new int[capacity + 1];
+        int[] wordAt = new int[capacity];
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        int[] depths = new int[capacity];
+
+        to[0] = words.length;
+        int count = 1;
+
+        for (int node = 0; node < count; node++) {
+            int low = from[node];
+            int high = to[node];
+            int depth = depths[node];
+
+            // Words ending here sort before their longer neighbours.
+            wordAt[node] = -1;
+            for (; low < high && keys[order[low]].length == depth; low++) {
+                if (wordAt[node] == -1 || frequencies[order[low]] > frequencies[wordAt[node]]) {
+                    wordAt[node] = order[low];
+                }
+            }
+
+            firstChild[node] = count;
+
+            while (low < high) {
+                char label = keys[order[low]][depth];
+                int end = low + 1;
+                while (end < high && keys[order[end]][depth] == label) {
+                    end++;
+                }
+
+                if (count == labels.length) {
+                    capacity = count * 2;
+                    labels = Arrays.copyOf(labels, capacity);
+                    firstChild = Arrays.copyOf(firstChild, capacity + 1);
+                    wordAt = Arrays.copyOf(wordAt, capacity);
+                    from = Arrays.copyOf(from, capacity);
+                    to = Arrays.copyOf(to, capacity);
+                    depths = Arrays.copyOf(depths, capacity);
+                }
+
+                labels[count] = label;
+                from[count] = low;
+                to[count] = end;
+                depths[count] = depth + 1;
+                count++;
+
+                low = end;
+            }
+        }
+        firstChild[count] = count;
+
+        this.labels = Arrays.copyOf(labels, count);
+        this.firstChild = Arrays.copyOf(firstChild, count + 1);
+        this.wordAt = Arrays.copyOf(wordAt, count);
+
+        // Children always come after their parents, so a backwards pass sees every child before its parent.
+        this.best = new int[count];
+        for (int node = count - 1; node >= 0; node--) {
+            int max = wordAt[node] == -1 ? -1 : frequencies[wordAt[node]];
+
+            for (int child = firstChild[node]; child < firstChild[node + 1]; child++) {
+                max = Math.max(max, best[child]);
+            }
+
+            best[node] = max;
+        }
+    }
+
+    /**
+     * Reads a word list with a word and its frequency on each line, separated by whitespace.
+     * Comments run from a '#' to the end of the line.
+     *
+     * @throws IllegalArgumentException If a line is malformed.
+     */
+    public static JamoTrie load(Reader text) throws IOException {
+        BufferedReader reader = new BufferedReader(text);
+        List<String> words = new ArrayList<>();
+        int[] frequencies = new int[256];
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            line = line.replaceFirst("(^|\\s+)#.*$", "").trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] fields = line.split("\\s+");
+            if (fields.length != 2) {
+                throw new IllegalArgumentException("Malformed line " + lineNumber + " in word list: " + line);
+            }
+
+            if (words.size() == frequencies.length) {
+                frequencies = Arrays.copyOf(frequencies, frequencies.length * 2);
+            }
+
+            try {
+                frequencies[words.size()] = Integer.parseInt(fields[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed frequency on line " + lineNumber + " in word list: " + fields[1]);
+            }
+            words.add(fields[0]);
+        }
+
+        return new JamoTrie(words.toArray(new String[0]), Arrays.copyOf(frequencies, words.size()));
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public int getNodeCount() {
+        return labels.length;
+    }
+
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    private static char[] toJamo(String word) {
+        char[] jamo = new char[word.length() * HangulParser.MAX_ATOMIC_JAMO];
+        int length = 0;
+
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            int written = HangulParser.deconstruct(c, jamo, length);
+
+            if (written == 0) {
+                jamo[length++] = c;
+            } else {
+                length += written;
+            }
+        }
+
+        return Arrays.copyOf(jamo, length);
+    }
+
+    private static int compare(char[] a, char[] b) {
+        int length = Math.min(a.length, b.length);
+
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return a[i] - b[i];
+            }
+        }
+
+        return a.length - b.length;
+    }
+
+    private int findChild(int node, char label) {
+        int low = firstChild[node];
+        int high = firstChild[node + 1] - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (labels[middle] < label) {
+                low = middle + 1;
+            } else if (labels[middle] > label) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Follows typing through the trie, one 자모 at a time, so that completions never need to search from the root.
+     * Not thread-safe, but any number of cursors can share a trie.
+     */
+    public class Cursor {
+        private int[] path = new int[16];
+        private int depth;
+
+        private final char[] jamo = new char[HangulParser.MAX_ATOMIC_JAMO];
+
+        // How many 자모 have been typed past the end of the trie, which backspace needs to undo before moving back.
+        private int misses;
+
+        // A max-heap of nodes and words to visit, packed as frequency << 32 | index << 1 | isWord.
+        private long[] heap = new long[64];
+        private int heapSize;
+
+        /**
+         * Moves to the next 자모. Syllables are deconstructed and followed 자모 by 자모.
+         *
+         * @return Whether any word starts with what's been typed.
+         */
+        public boolean advance(char c) {
+            if (HangulParser.withinHangulSyllables(c)) {
+                int length = HangulParser.deconstruct(c, jamo, 0);
+
+                for (int i = 0; i < length; i++) {
+                    step(jamo[i]);
+                }
+            } else {
+                step(c);
+            }
+
+            return misses == 0;
+        }
+
+        /**
+         * Moves past every character of the text.
+         *
+         * @return Whether any word starts with what's been typed.
+         */
+        public boolean advance(CharSequence text) {
+            for (int i = 0; i < text.length(); i++) {
+                advance(text.charAt(i));
+            }
+
+            return misses == 0;
+        }
+
+        private void step(char jamo) {
+            if (misses > 0) {
+                misses++;
+                return;
+            }
+
+            int child = findChild(path[depth], jamo);
+            if (child == -1) {
+                misses++;
+                return;
+            }
+
+            if (++depth == path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            path[depth] = child;
+        }
+
+        /**
+         * Moves back one 자모.
+         */
+        public void backspace() {
+            if (misses > 0) {
+                misses--;
+            } else if (depth > 0) {
+                depth--;
+            }
+        }
+
+        public void reset() {
+            depth = 0;
+            misses = 0;
+        }
+
+        /**
+         * @return Whether what's been typed is a whole word.
+         */
+        public boolean isWord() {
+            return misses == 0 && wordAt[path[depth]] != -1;
+        }
+
+        /**
+         * @return Up to <code>limit</code> words starting with what's been typed, most frequent first.
+         */
+        public List<String> complete(int limit) {
+            List<String> completions = new ArrayList<>(Math.min(limit, 16));
+            if (misses > 0 || limit <= 0) {
+                return completions;
+            }
+
+            heapSize = 0;
+            push(best[path[depth]], path[depth], false);
+
+            while (heapSize > 0 && completions.size() < limit) {
+                long item = pop();
+                int index = (int) ((item & 0xFFFFFFFFL) >>> 1);
+
+                if ((item & 1) != 0) {
+                    completions.add(words[index]);
+                    continue;
+                }
+
+                if (wordAt[index] != -1) {
+                    push(frequencies[wordAt[index]], wordAt[index], true);
+                }
+
+                for (int child = firstChild[index]; child < firstChild[index + 1]; child++) {
+                    push(best[child], child, false);
+                }
+            }
+
+            return completions;
+        }
+
+        private void push(int frequency, int index, boolean word) {
+            if (frequency < 0) {
+                return; // Nothing under this node.
+            }
+
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+
+            long item = (long) frequency << 32 | (long) index << 1 | (word ? 1 : 0);
+
+            int i = heapSize++;
+            while (i > 0 && heap[(i - 1) / 2] < item) {
+                heap[i] = heap[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            heap[i] = item;
+        }
+
+        private long pop() {
+            long top = heap[0];
+            long last = heap[--heapSize];
+
+            int i = 0;
+            while (true) {
+                int child = i * 2 + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heap[child + 1] > heap[child]) {
+                    child++;
+                }
+                if (heap[child] <= last) {
+                    break;
+                }
+
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+
+            return top;
+        }
+    }
+}
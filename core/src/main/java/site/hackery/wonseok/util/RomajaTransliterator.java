@@ -0,0 +1,278 @@
+package site.hackery.wonseok.util;
+
+
+/**
+ * Transliterates romanized Korean into Hangul as it is typed, i.e. 'annyeong' into '안녕'.
+ * <p>
+ * Letters are matched against the Revised Romanization (plus some common informal spellings, like 'oo' for 'ㅜ') with
+ * a longest-match trie, and the resulting 자모 are fed into a {@link HangulComposer}. Whether a consonant starts or
+ * ends a syllable (and so whether 'k' is 'ㅋ' or 'ㄱ') is decided once the letter after it is known.
+ * <p>
+ * A hyphen or apostrophe straight after letters forces a syllable break without being output, i.e. 'yeong-eo' is
+ * '영어' where 'yeongeo' would be '연거'. Anywhere else it's like any other character, which ends the word and is
+ * passed through as-is.
+ * <p>
+ * Nothing is allocated per character, so the transliterator can keep up with both typing and bulk conversion.
+ */
+public class RomajaTransliterator {
+    /**
+     * The most characters a single call to {@link #feed(char, char[], int)} or {@link #flush(char[], int)} can output.
+     */
+    public static final int MAX_OUTPUT = 8;
+
+    private final HangulComposer composer = new HangulComposer();
+
+    // The letters walked down the trie so far, which might still turn out to be part of a longer piece.
+    private final char[] letters = new char[MAX_PIECE_LENGTH];
+    private final char[] replay = new char[MAX_PIECE_LENGTH];
+    private int letterCount;
+    private int state;
+    private int acceptedPiece = -1;
+    private int acceptedLength;
+
+    // A consonant piece which could still either end this syllable or start the next.
+    private int pendingConsonant = -1;
+    // Whether the last 자모 given to the composer was a consonant, which a following vowel can use as its initial.
+    private boolean afterConsonant;
+
+    private char[] out;
+    private int position;
+
+    private RomajaTransliterator preview;
+
+    /**
+     * Feeds a single typed character into the transliterator.
+     *
+     * @param c      The typed character.
+     * @param out    The buffer to write committed characters into. Needs room for {@link #MAX_OUTPUT} characters.
+     * @param offset The index in <code>out</code> to start writing at.
+     * @return The number of characters committed.
+     */
+    public int feed(char c, char[] out, int offset) {
+        this.out = out;
+        this.position = offset;
+
+        int index = Character.toLowerCase(c) - 'a';
+
+        if (index >= 0 && index < 26) {
+            walk(c, index);
+        } else if ((c == '-' || c == '\'') && isComposing()) {
+            endWord();
+        } else {
+            endWord();
+            out[position++] = c;
+        }
+
+        this.out = null;
+        return position - offset;
+    }
+
+    /**
+     * Ends the current word, committing everything still pending.
+     *
+     * @param out    The buffer to write committed characters into. Needs room for {@link #MAX_OUTPUT} characters.
+     * @param offset The index in <code>out</code> to start writing at.
+     * @return The number of characters committed.
+     */
+    public int flush(char[] out, int offset) {
+        this.out = out;
+        this.position = offset;
+
+        endWord();
+
+        this.out = null;
+        return position - offset;
+    }
+
+    /**
+     * Writes out what the uncommitted input would become if the word ended now, without changing any state.
+     *
+     * @param out    The buffer to write into. Needs room for {@link #MAX_OUTPUT} characters.
+     * @param offset The index in <code>out</code> to start writing at.
+     * @return The number of characters written.
+     */
+    public int getPreedit(char[] out, int offset) {
+        if (preview == null) {
+            preview = new RomajaTransliterator();
+        }
+
+        preview.copyFrom(this);
+        return preview.flush(out, offset);
+    }
+
+    /**
+     * @return Whether there is any uncommitted input.
+     */
+    public boolean isComposing() {
+        return letterCount > 0 || pendingConsonant != -1 || composer.isComposing();
+    }
+
+    public void reset() {
+        composer.reset();
+        resetWalk();
+        pendingConsonant = -1;
+        afterConsonant = false;
+    }
+
+    private void copyFrom(RomajaTransliterator other) {
+        composer.copyFrom(other.composer);
+        System.arraycopy(other.letters, 0, letters, 0, other.letterCount);
+        letterCount = other.letterCount;
+        state = other.state;
+        acceptedPiece = other.acceptedPiece;
+        acceptedLength = other.acceptedLength;
+        pendingConsonant = other.pendingConsonant;
+        afterConsonant = other.afterConsonant;
+    }
+
+    private void walk(char letter, int index) {
+        int next = NEXT[state * 26 + index];
+
+        if (next != -1) {
+            letters[letterCount++] = letter;
+            state = next;
+
+            if (PIECES[next] != -1) {
+                acceptedPiece = PIECES[next];
+                acceptedLength = letterCount;
+            }
+        } else if (letterCount == 0) {
+            // This letter doesn't start any piece, so it can only be passed through.
+            endWord();
+            out[position++] = letter;
+        } else {
+            resolve();
+            walk(letter, index);
+        }
+    }
+
+    /**
+     * Outputs the longest piece matched by the pending letters, then walks the trie again with whatever is left over.
+     */
+    private void resolve() {
+        int consumed;
+
+        if (acceptedPiece != -1) {
+            consumed = acceptedLength;
+            emitPiece(acceptedPiece);
+        } else {
+            consumed = 1;
+            endSyllable();
+            out[position++] = letters[0];
+        }
+
+        int remaining = letterCount - consumed;
+        System.arraycopy(letters, consumed, replay, 0, remaining);
+        resetWalk();
+
+        for (int i = 0; i < remaining; i++) {
+            walk(replay[i], Character.toLowerCase(replay[i]) - 'a');
+        }
+    }
+
+    private void resetWalk() {
+        letterCount = 0;
+        state = 0;
+        acceptedPiece = -1;
+        acceptedLength = 0;
+    }
+
+    private void emitPiece(int piece) {
+        if (isVowel(piece)) {
+            if (pendingConsonant != -1) {
+                compose(INITIAL[pendingConsonant]);
+                pendingConsonant = -1;
+                afterConsonant = true;
+            }
+
+            if (!afterConsonant) {
+                compose('ㅇ');
+            }
+
+            compose(INITIAL[piece]);
+            afterConsonant = false;
+        } else {
+            settlePendingConsonant();
+            pendingConsonant = piece;
+        }
+    }
+
+    private void settlePendingConsonant() {
+        if (pendingConsonant != -1) {
+            compose(FINAL[pendingConsonant]);
+            pendingConsonant = -1;
+            afterConsonant = true;
+        }
+    }
+
+    private void endWord() {
+        while (letterCount > 0) {
+            resolve();
+        }
+
+        endSyllable();
+    }
+
+    private void endSyllable() {
+        settlePendingConsonant();
+
+        char committed = composer.commit();
+        if (committed != 0) {
+            out[position++] = committed;
+        }
+
+        afterConsonant = false;
+    }
+
+    private void compose(int packedJamo) {
+        compose((char) (packedJamo >>> 16));
+
+        if ((char) packedJamo != 0) {
+            compose((char) packedJamo);
+        }
+    }
+
+    private void compose(char jamo) {
+        char committed = composer.compose(jamo);
+
+        if (committed != 0) {
+            out[position++] = committed;
+        }
+    }
+
+    private static boolean isVowel(int piece) {
+        return FINAL[piece] == 0;
+    }
+
+    /**
+     * Transliterates an entire piece of romanized text.
+     *
+     * @param romaja The text to transliterate.
+     * @return The transliterated text.
+     */
+    public static String transliterate(CharSequence romaja) {
+        RomajaTransliterator transliterator = new RomajaTransliterator();
+
+        char[] buffer = new char[MAX_OUTPUT];
+        StringBuilder builder = new StringBuilder(romaja.length());
+
+        for (int i = 0; i < romaja.length(); i++) {
+            builder.append(buffer, 0, transliterator.feed(romaja.charAt(i), buffer, 0));
+        }
+
+        builder.append(buffer, 0, transliterator.flush(buffer, 0));
+        return builder.toString();
+    }
+
+    // The romanizations are listed in TableGenerator, which compiles them into a trie at build time.
+    private static final int MAX_PIECE_LENGTH = RomajaTables.MAX_PIECE_LENGTH;
+
+    // The trie, compiled into flat arrays: NEXT[state * 26 + letter] is the next state (or -1),
+    // and PIECES[state] is the piece matched on reaching that state (or -1).
+    private static final int[] NEXT = RomajaTables.NEXT;
+    private static final int[] PIECES = RomajaTables.PIECES;
+
+    // The 자모 each piece outputs, packed two to an int. Vowels have no final form.
+    private static final int[] INITIAL = RomajaTables.INITIAL;
+    private static final int[] FINAL = RomajaTables.FINAL;
+}
@@ -0,0 +1,175 @@
+package site.hackery.wonseok.util;
+
+/**
+ * A stateful 자모 composer for 세벌식 layouts, where initial and final consonants are typed with different keys.
+ * <p>
+ * Keys are told apart by typing conjoining 자모: initial consonants from U+1100, vowels from U+1161 and final
+ * consonants from U+11A8. Since every 자모 says where in the syllable it goes, nothing is ever moved between
+ * syllables, i.e. 각 + ㅏ is 각ㅏ rather than 가가.
+ * <p>
+ * Like {@link HangulComposer}, the preedit and committed characters are ordinary syllables and compatibility 자모.
+ */
+public class SebeolsikComposer implements JamoComposer {
+    private static final char CHOSEONG_BASE = 0x1100;
+    private static final char JUNGSEONG_BASE = 0x1161;
+    private static final char JONGSEONG_BASE = 0x11A8;
+
+    private static final int CHOSEONG_COUNT = 19;
+    private static final int JUNGSEONG_COUNT = 21;
+    private static final int JONGSEONG_COUNT = 27;
+
+    private char choseong;
+    private char jungseong;
+    private char jongseong;
+
+    @Override
+    public boolean canCompose(char jamo) {
+        return isInitial(jamo) || isMedial(jamo) || isFinal(jamo) || HangulParser.isJungseong(jamo);
+    }
+
+    /**
+     * Feeds a single 자모 into the composer.
+     *
+     * @param jamo A conjoining 자모, or a compatibility 자모 vowel.
+     * @return The character committed by this 자모, or 0 if nothing was committed.
+     */
+    @Override
+    public char compose(char jamo) {
+        if (isInitial(jamo)) {
+            return composeInitial(HangulParser.choseong(jamo - CHOSEONG_BASE));
+        }
+
+        if (isMedial(jamo)) {
+            return composeVowel(HangulParser.jungseong(jamo - JUNGSEONG_BASE));
+        }
+
+        if (HangulParser.isJungseong(jamo)) {
+            return composeVowel(jamo);
+        }
+
+        if (isFinal(jamo)) {
+            return composeFinal(HangulParser.jongseong(jamo - JONGSEONG_BASE));
+        }
+
+        throw new IllegalArgumentException("Not a composable Hangul jamo: " + jamo);
+    }
+
+    private char composeInitial(char consonant) {
+        if (choseong != 0 && jungseong == 0 && jongseong == 0) {
+            // Typing an initial consonant twice doubles it, i.e. ㄱ + ㄱ = ㄲ.
+            char doubled = doubled(choseong, consonant);
+
+            if (doubled != 0) {
+                choseong = doubled;
+                return 0;
+            }
+        }
+
+        char committed = commit();
+        choseong = consonant;
+        return committed;
+    }
+
+    private char composeVowel(char vowel) {
+        if (jungseong != 0 && jongseong == 0) {
+            char joined = HangulParser.join(jungseong, vowel);
+
+            if (joined != 0) {
+                jungseong = joined;
+                return 0;
+            }
+        } else if (jungseong == 0 && jongseong == 0) {
+            jungseong = vowel;
+            return 0;
+        }
+
+        char committed = commit();
+        jungseong = vowel;
+        return committed;
+    }
+
+    private char composeFinal(char consonant) {
+        if (jongseong != 0) {
+            char joined = HangulParser.join(jongseong, consonant);
+
+            if (joined == 0) {
+                joined = doubled(jongseong, consonant);
+            }
+
+            if (joined != 0 && HangulParser.isJongseong(joined)) {
+                jongseong = joined;
+                return 0;
+            }
+        } else if (choseong != 0 && jungseong != 0) {
+            jongseong = consonant;
+            return 0;
+        }
+
+        // A final consonant without a syllable to end is left on its own.
+        char committed = commit();
+        jongseong = consonant;
+        return committed;
+    }
+
+    private static char doubled(char first, char second) {
+        if (first != second) {
+            return 0;
+        }
+
+        switch (first) {
+            case 'ㄱ': return 'ㄲ';
+            case 'ㄷ': return 'ㄸ';
+            case 'ㅂ': return 'ㅃ';
+            case 'ㅅ': return 'ㅆ';
+            case 'ㅈ': return 'ㅉ';
+            default: return 0;
+        }
+    }
+
+    private static boolean isInitial(char jamo) {
+        return jamo >= CHOSEONG_BASE && jamo < CHOSEONG_BASE + CHOSEONG_COUNT;
+    }
+
+    private static boolean isMedial(char jamo) {
+        return jamo >= JUNGSEONG_BASE && jamo < JUNGSEONG_BASE + JUNGSEONG_COUNT;
+    }
+
+    private static boolean isFinal(char jamo) {
+        return jamo >= JONGSEONG_BASE && jamo < JONGSEONG_BASE + JONGSEONG_COUNT;
+    }
+
+    /**
+     * @return The character currently being composed, or 0 if there isn't one.
+     */
+    @Override
+    public char getPreedit() {
+        if (choseong != 0 && jungseong != 0) {
+            return HangulParser.constructSyllable(choseong, jungseong, jongseong);
+        }
+
+        if (choseong != 0) {
+            return choseong;
+        }
+
+        return jungseong != 0 ? jungseong : jongseong;
+    }
+
+    @Override
+    public boolean isComposing() {
+        return choseong != 0 || jungseong != 0 || jongseong != 0;
+    }
+
+    @Override
+    public char commit() {
+        char committed = getPreedit();
+        reset();
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        choseong = 0;
+        jungseong = 0;
+        jongseong = 0;
+    }
+}
@@ -0,0 +1,74 @@
+package site.hackery.wonseok.util;
+
+import site.hackery.wonseok.util.keymap.Keymap;
+import site.hackery.wonseok.util.keymap.KoreanKeymaps;
+import site.hackery.wonseok.util.ngram.LayoutDetector;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Types through every layout and romaja in the background, so that the first real keystroke doesn't have to load and
+ * initialize the classes involved, or run their code in the interpreter.
+ * <p>
+ * This only touches classes without Minecraft or LWJGL dependencies, so it can run while the game is still starting.
+ * To warm up the classes the game will actually use, it must be loaded through the same class loader they are, which is
+ * why it's a {@link Callable}: the caller only has to share the JDK's classes with it.
+ */
+public class Warmup implements Callable<Integer> {
+    // Enough keystrokes for the JIT to compile the composers, at a few milliseconds per layout.
+    private static final int ROUNDS = 2000;
+
+    private static final String KEYS = "dkssudgktpdy, qksrkqtmqslek. rkawkgkqslek!";
+    private static final String ROMAJA = "annyeonghaseyo, bangapseumnida. gamsahamnida!";
+
+    // Returned at the end, so that the JIT can't throw the work away.
+    private int checksum;
+
+    /**
+     * @return A checksum of everything typed, to be logged.
+     */
+    @Override
+    public Integer call() {
+        char[] output = new char[RomajaTransliterator.MAX_OUTPUT * 2];
+
+        for (Keymap keymap : KoreanKeymaps.all()) {
+            JamoComposer composer = keymap.newComposer();
+
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < KEYS.length(); i++) {
+                    char input = keymap.getInput(KEYS.charAt(i));
+
+                    if (input != 0 && composer.canCompose(input)) {
+                        checksum += composer.compose(input);
+                    } else {
+                        checksum += composer.commit();
+                    }
+                }
+
+                checksum += composer.commit();
+            }
+        }
+
+        RomajaTransliterator romaja = new RomajaTransliterator();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < ROMAJA.length(); i++) {
+                checksum += romaja.feed(ROMAJA.charAt(i), output, 0);
+            }
+
+            checksum += romaja.flush(output, 0);
+        }
+
+        LayoutDetector detector = new LayoutDetector();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < KEYS.length(); i++) {
+                if (!detector.feed(KEYS.charAt(i))) {
+                    checksum += detector.looksLikeHangul() ? 1 : 0;
+                    detector.reset();
+                }
+            }
+        }
+
+        checksum += HangulNormalizer.normalize(HangulParser.construct(HangulParser.deconstruct('뷁'))).length();
+        return checksum;
+    }
+}
@@ -0,0 +1,155 @@
+package site.hackery.wonseok.util.hanja;
+
+import site.hackery.wonseok.util.HangulParser;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Compiles Hanja dictionaries from text into the binary table read by {@link HanjaDictionary}.
+ * <p>
+ * Dictionaries are written one reading per line, as a word of Hangul syllables followed by its Hanja, most common
+ * first:
+ * <pre>
+ * 한 韓 漢 寒     # Single syllables.
+ * 한국 韓國       # Whole words.
+ * </pre>
+ * Readings listed more than once, in one file or across several, have their candidates joined in order.
+ * <p>
+ * The compiled table is sorted by reading, so it can be binary searched without being parsed. It's laid out as:
+ * <pre>
+ * int   magic ('WSHJ')
+ * int   version
+ * int   entry count
+ * int   offset of each entry in the payload, in chars, followed by the payload's length
+ * char  payload, for each entry:
+ *           char reading length, chars reading
+ *           char candidate count
+ *           for each candidate: char length, chars candidate
+ * </pre>
+ */
+public class HanjaCompiler {
+    static final int MAGIC = 0x5753484A;
+    static final int VERSION = 1;
+
+    /**
+     * Compiles dictionary files into a single table.
+     *
+     * @param args The file to write the table to, followed by the dictionary files.
+     */
+    public static void main(String[] args) throws IOException {
+        SortedMap<String, List<String>> entries = new TreeMap<>();
+
+        for (int i = 1; i < args.length; i++) {
+            File file = new File(args[i]);
+
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                parse(file.getName(), reader, entries);
+            }
+        }
+
+        File output = new File(args[0]);
+        output.getAbsoluteFile().getParentFile().mkdirs();
+
+        try (OutputStream out = Files.newOutputStream(output.toPath())) {
+            write(entries, out);
+        }
+    }
+
+    /**
+     * Parses a dictionary from text, adding its entries to those already parsed.
+     *
+     * @param name    The name of the dictionary, for error messages.
+     * @param entries The candidates of each reading, sorted by reading.
+     * @throws IllegalArgumentException If the dictionary is malformed.
+     */
+    public static void parse(String name, Reader text, SortedMap<String, List<String>> entries) throws IOException {
+        BufferedReader reader = new BufferedReader(text);
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            // Comments run from a '#' to the end of the line.
+            line = line.replaceFirst("(^|\\s+)#.*$", "").trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] fields = line.split("\\s+");
+            if (fields.length < 2 || !isReading(fields[0])) {
+                throw new IllegalArgumentException("Malformed line " + lineNumber + " in dictionary " + name + ": " + line);
+            }
+
+            List<String> candidates = entries.computeIfAbsent(fields[0], reading -> new ArrayList<>());
+            for (int i = 1; i < fields.length; i++) {
+                if (!candidates.contains(fields[i])) {
+                    candidates.add(fields[i]);
+                }
+            }
+        }
+    }
+
+    private static boolean isReading(String word) {
+        if (word.length() > HanjaDictionary.MAX_READING_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < word.length(); i++) {
+            if (!HangulParser.withinHangulSyllables(word.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param entries The candidates of each reading, sorted by reading.
+     */
+    public static void write(SortedMap<String, List<String>> entries, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(entries.size());
+
+        int offset = 0;
+        for (Map.Entry<String, List<String>> entry : entries.entrySet()) {
+            out.writeInt(offset);
+
+            offset += 2 + entry.getKey().length();
+            for (String candidate : entry.getValue()) {
+                offset += 1 + candidate.length();
+            }
+        }
+        out.writeInt(offset);
+
+        for (Map.Entry<String, List<String>> entry : entries.entrySet()) {
+            out.writeChar(entry.getKey().length());
+            out.writeChars(entry.getKey());
+
+            out.writeChar(entry.getValue().size());
+            for (String candidate : entry.getValue()) {
+                out.writeChar(candidate.length());
+                out.writeChars(candidate);
+            }
+        }
+
+        out.flush();
+    }
+}
@@ -0,0 +1,278 @@
+package site.hackery.wonseok.util.hanja;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Looks up the Hanja for words written in Hangul, in a table compiled by {@link HanjaCompiler}.
+ * <p>
+ * The table is searched where it is, without being parsed: lookups binary search the offset table, comparing
+ * readings straight out of the buffer, and only the candidates found are copied out as strings. When the table is
+ * memory-mapped it costs next to nothing on the heap, and pages of it the lookups never touch are never read.
+ */
+public class HanjaDictionary {
+    /**
+     * The resource holding the dictionary bundled with Wonseok.
+     */
+    public static final String RESOURCE = "/wonseok/hanja.bin";
+
+    /**
+     * The longest reading a dictionary can hold, in syllables.
+     */
+    public static final int MAX_READING_LENGTH = 8;
+
+    /**
+     * The version of the compiled table format, to name copies of the bundled dictionary by.
+     */
+    public static final int FORMAT_VERSION = HanjaCompiler.VERSION;
+
+    private static final String[] NO_CANDIDATES = new String[0];
+    private static final int HEADER_LENGTH = 12;
+
+    private final ByteBuffer table;
+    private final int size;
+    private final int payload;
+
+    /**
+     * @param table A compiled table, from its start to its end.
+     * @throws IOException If the table is truncated or isn't a Hanja table.
+     */
+    public HanjaDictionary(ByteBuffer table) throws IOException {
+        this.table = table;
+        this.payload = checkHeader(table, table.limit());
+        this.size = table.getInt(8);
+
+        checkLength(payload, table.getInt(payload - 4), table.limit());
+    }
+
+    /**
+     * Maps a compiled table into memory.
+     *
+     * @throws IOException If the file is truncated or isn't a Hanja table.
+     */
+    public static HanjaDictionary open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+
+            // Checked before the file is mapped, since some platforms can't replace a mapped file until the mapping is
+            // garbage collected, and a bad file needs replacing.
+            ByteBuffer header = readAt(channel, 0, HEADER_LENGTH);
+            int payload = checkHeader(header, length);
+            checkLength(payload, readAt(channel, payload - 4, 4).getInt(0), length);
+
+            // The mapping stays valid after the channel is closed.
+            return new HanjaDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+        }
+    }
+
+    /**
+     * @param header The start of a table.
+     * @param length The length of the whole table.
+     * @return Where the payload starts, after the header and offset table.
+     */
+    private static int checkHeader(ByteBuffer header, long length) throws IOException {
+        if (length < HEADER_LENGTH || header.getInt(0) != HanjaCompiler.MAGIC
+                || header.getInt(4) != HanjaCompiler.VERSION) {
+            throw new IOException("Not a compiled Hanja table");
+        }
+
+        int size = header.getInt(8);
+
+        if (size < 0 || size >= (length - HEADER_LENGTH) / 4) {
+            throw new IOException("Truncated Hanja table");
+        }
+
+        return HEADER_LENGTH + 4 * (size + 1);
+    }
+
+    // The last offset is where the payload ends, in characters, which should be the end of the table.
+    private static void checkLength(int payload, int lastOffset, long length) throws IOException {
+        if (payload + 2L * lastOffset != length) {
+            throw new IOException("Truncated Hanja table");
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) <= 0) {
+                // The end of the file, which leaves the rest zeroed.
+                break;
+            }
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Loads the bundled dictionary. Resources can't be mapped from inside a jar, so it's copied out to a file first,
+     * unless that's already been done. A copy that isn't a valid table, i.e. one cut short by a full disk, is copied
+     * out again.
+     *
+     * @param file Where to keep the copy of the bundled dictionary, which should be named after the Wonseok version and
+     *             {@link #FORMAT_VERSION} so that updates aren't shadowed by an old copy. If this is null, the
+     *             dictionary is read onto the heap.
+     */
+    public static HanjaDictionary load(Path file) throws IOException {
+        if (file != null && Files.isRegularFile(file)) {
+            try {
+                return open(file);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        byte[] table;
+        try (InputStream stream = HanjaDictionary.class.getResourceAsStream(RESOURCE)) {
+            if (stream == null) {
+                throw new IOException("Missing Hanja dictionary: " + RESOURCE);
+            }
+
+            table = readFully(stream);
+        }
+
+        if (file == null) {
+            return new HanjaDictionary(ByteBuffer.wrap(table));
+        }
+
+        // Written to a temporary file and moved into place, so that a crash can't leave a truncated copy behind.
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), "hanja", ".tmp");
+
+        try {
+            Files.write(temporary, table);
+
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        return open(file);
+    }
+
+    private static byte[] readFully(InputStream stream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        byte[] buffer = new byte[8192];
+
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @return The number of readings in the dictionary.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The Hanja for a reading, most common first, or an empty array if it isn't in the dictionary.
+     */
+    public String[] lookup(CharSequence reading) {
+        return lookup(reading, 0, reading.length());
+    }
+
+    /**
+     * Looks up part of some text without copying it out.
+     *
+     * @param start The index of the reading's first character.
+     * @param end   The index after the reading's last character.
+     * @return The Hanja for the reading, most common first, or an empty array if it isn't in the dictionary.
+     */
+    public String[] lookup(CharSequence text, int start, int end) {
+        int index = find(text, start, end);
+        return index < 0 ? NO_CANDIDATES : candidates(index);
+    }
+
+    /**
+     * @return Whether the dictionary has Hanja for part of some text.
+     */
+    public boolean contains(CharSequence text, int start, int end) {
+        return find(text, start, end) >= 0;
+    }
+
+    private int find(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length > MAX_READING_LENGTH) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(middle, text, start, length);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    // Compares the reading of an entry to the text, in the same order as String.compareTo.
+    private int compare(int index, CharSequence text, int start, int length) {
+        int position = entryPosition(index);
+        int readingLength = table.getChar(position);
+
+        int common = Math.min(readingLength, length);
+        for (int i = 0; i < common; i++) {
+            int difference = table.getChar(position + 2 + 2 * i) - text.charAt(start + i);
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return readingLength - length;
+    }
+
+    private String[] candidates(int index) {
+        int position = entryPosition(index);
+        position += 2 + 2 * table.getChar(position);
+
+        String[] candidates = new String[table.getChar(position)];
+        position += 2;
+
+        for (int i = 0; i < candidates.length; i++) {
+            char[] candidate = new char[table.getChar(position)];
+            position += 2;
+
+            for (int j = 0; j < candidate.length; j++, position += 2) {
+                candidate[j] = table.getChar(position);
+            }
+
+            candidates[i] = new String(candidate);
+        }
+
+        return candidates;
+    }
+
+    // The byte position of an entry in the table.
+    private int entryPosition(int index) {
+        return payload + 2 * table.getInt(HEADER_LENGTH + 4 * index);
+    }
+}
@@ -0,0 +1,173 @@
+package site.hackery.wonseok.util.keymap;
+
+import site.hackery.wonseok.util.HangulComposer;
+import site.hackery.wonseok.util.JamoComposer;
+import site.hackery.wonseok.util.SebeolsikComposer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Keymap {
+    private static final int KEYCODE_COUNT = 256;
+    private static final int CHAR_COUNT = 128;
+
+    private final String id;
+    private final String name;
+    private final Type type;
+
+    // Keys by LWJGL keycode.
+    private final Key[] keys = new Key[KEYCODE_COUNT];
+    // 자모 by the (ASCII) character a key types, with shifted characters mapping to the shifted input.
+    // This lets a typed character be turned into 자모 with a single array read.
+    private final char[] inputs = new char[CHAR_COUNT];
+
+    /**
+     * @param id   A short identifier for the keymap, i.e. "sebeolsik-390".
+     * @param name The name of the keymap as shown to players, i.e. "세벌식 390".
+     * @param type How the 자모 typed through this keymap are composed.
+     */
+    public Keymap(String id, String name, Type type) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * @param keycode      The LWJGL keycode of the key.
+     * @param key          The character the key types on a QWERTY keyboard, i.e. 'q' for {@code KEY_Q}.
+     * @param shiftedKey   The character the key types on a QWERTY keyboard while shift is held, i.e. 'Q'.
+     * @param input        The character typed by the key, or 0 if the key types as usual.
+     * @param shiftedInput The character typed by the key while shift is held, or 0 if it types as usual.
+     * @throws IllegalArgumentException If the keycode is out of range, or either QWERTY character isn't ASCII.
+     */
+    public void register(int keycode, char key, char shiftedKey, char input, char shiftedInput) {
+        if (keycode < 0 || keycode >= KEYCODE_COUNT) {
+            throw new IllegalArgumentException("Keycode " + keycode + " is out of range");
+        }
+
+        // Catches 자모 passed where the keys go, as the old register(keycode, input, shiftedInput) took them.
+        if (key >= CHAR_COUNT || shiftedKey >= CHAR_COUNT) {
+            throw new IllegalArgumentException("Keys must be the ASCII characters typed on a QWERTY keyboard, got '"
+                    + key + "' and '" + shiftedKey + "' for keycode " + keycode);
+        }
+
+        keys[keycode] = new Key(keycode, key, shiftedKey, input, shiftedInput);
+
+        inputs[key] = input;
+        inputs[shiftedKey] = shiftedInput;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return A new composer for the 자모 typed through this keymap.
+     */
+    public JamoComposer newComposer() {
+        return type == Type.SEBEOLSIK ? new SebeolsikComposer() : new HangulComposer();
+    }
+
+    /**
+     * @param keycode An LWJGL keycode.
+     * @return The key with that keycode, or null if it isn't part of this keymap.
+     */
+    public Key getKey(int keycode) {
+        return keycode >= 0 && keycode < KEYCODE_COUNT ? keys[keycode] : null;
+    }
+
+    /**
+     * @return Every key in this keymap, in keycode order.
+     */
+    public List<Key> getKeys() {
+        List<Key> registered = new ArrayList<>();
+
+        for (Key key : keys) {
+            if (key != null) {
+                registered.add(key);
+            }
+        }
+
+        return registered;
+    }
+
+    /**
+     * @param typedChar A typed character. Shifted characters, like uppercase letters, give the shifted input.
+     * @return The character the typed character maps to, or 0 if it doesn't map to one.
+     */
+    public char getInput(char typedChar) {
+        return typedChar < CHAR_COUNT ? inputs[typedChar] : 0;
+    }
+
+    /**
+     * Like {@link #getInput(char)}, but for a keystroke, where the case of a letter says nothing about shift: with Caps
+     * Lock on, 'R' is typed without shift, and should give the unshifted input.
+     *
+     * @param typedChar A typed character.
+     * @param shifted   Whether shift was held while it was typed.
+     * @return The character the keystroke maps to, or 0 if it doesn't map to one.
+     */
+    public char getInput(char typedChar, boolean shifted) {
+        if (typedChar >= 'a' && typedChar <= 'z' || typedChar >= 'A' && typedChar <= 'Z') {
+            char lowercase = (char) (typedChar | 0x20);
+            typedChar = shifted ? (char) (lowercase & ~0x20) : lowercase;
+        }
+
+        return getInput(typedChar);
+    }
+
+    public enum Type {
+        /**
+         * Consonants are typed as compatibility 자모, and whether they start or end a syllable depends on what follows.
+         */
+        DUBEOLSIK,
+        /**
+         * Initial and final consonants are typed with different keys, as conjoining 자모 (U+1100 to U+11FF).
+         */
+        SEBEOLSIK
+    }
+
+    public static class Key {
+        private final int keycode;
+        private final char key;
+        private final char shiftedKey;
+        private final char input;
+        private final char shiftedInput;
+
+        public Key(int keycode, char key, char shiftedKey, char input, char shiftedInput) {
+            this.keycode = keycode;
+            this.key = key;
+            this.shiftedKey = shiftedKey;
+            this.input = input;
+            this.shiftedInput = shiftedInput;
+        }
+
+        public int getKeycode() {
+            return keycode;
+        }
+
+        public char getKey() {
+            return key;
+        }
+
+        public char getShiftedKey() {
+            return shiftedKey;
+        }
+
+        public char getInput() {
+            return input;
+        }
+
+        public char getShiftedInput() {
+            return shiftedInput;
+        }
+    }
+}
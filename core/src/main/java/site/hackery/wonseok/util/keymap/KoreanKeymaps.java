@@ -0,0 +1,67 @@
+package site.hackery.wonseok.util.keymap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The keyboard layouts shipped with Wonseok, loaded from the table compiled from {@code src/main/layouts} at build
+ * time.
+ */
+public class KoreanKeymaps {
+    private static final String LAYOUTS_RESOURCE = "/wonseok/layouts.bin";
+
+    private static final List<Keymap> ALL = Collections.unmodifiableList(load());
+
+    public static final Keymap DUBEOLSIK = get("dubeolsik");
+    public static final Keymap SEBEOLSIK_390 = get("sebeolsik-390");
+    public static final Keymap SEBEOLSIK_FINAL = get("sebeolsik-final");
+
+    /**
+     * @return Every layout, in the order they were compiled.
+     */
+    public static List<Keymap> all() {
+        return ALL;
+    }
+
+    /**
+     * @param id A layout id, i.e. "dubeolsik".
+     * @return The layout with that id, or null if there isn't one.
+     */
+    public static Keymap get(String id) {
+        for (Keymap keymap : ALL) {
+            if (keymap.getId().equals(id)) {
+                return keymap;
+            }
+        }
+
+        return null;
+    }
+
+    private static List<Keymap> load() {
+        try (InputStream stream = KoreanKeymaps.class.getResourceAsStream(LAYOUTS_RESOURCE)) {
+            if (stream == null) {
+                throw new IllegalStateException("Missing keyboard layouts: " + LAYOUTS_RESOURCE);
+            }
+
+            // The table is only a few kilobytes, so it's read in one go and parsed from memory.
+            byte[] table = new byte[Math.max(stream.available(), 4096)];
+            int length = 0;
+            int read;
+
+            while ((read = stream.read(table, length, table.length - length)) != -1) {
+                length += read;
+
+                if (length == table.length) {
+                    table = Arrays.copyOf(table, table.length * 2);
+                }
+            }
+
+            return LayoutCompiler.read(Arrays.copyOf(table, length));
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't load keyboard layouts", e);
+        }
+    }
+}
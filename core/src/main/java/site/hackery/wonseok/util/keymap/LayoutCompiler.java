@@ -0,0 +1,241 @@
+package site.hackery.wonseok.util.keymap;
+
+import site.hackery.wonseok.util.HangulParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles keyboard layouts from text into the binary table loaded by {@link KoreanKeymaps}.
+ * <p>
+ * Layouts are written one key per line, as the character the key types on a QWERTY keyboard followed by what it
+ * types in the layout, and optionally what it types with shift held:
+ * <pre>
+ * name 세벌식 390
+ * type sebeolsik
+ *
+ * k ㄱ-          # An initial consonant.
+ * x -ㄱ          # A final consonant.
+ * f ㅏ
+ * m ㅎ- 1        # Shift+M types '1'.
+ * </pre>
+ * In 세벌식 layouts consonants are marked with a '-' after them if they start a syllable, or before them if they end
+ * one. Anything else is typed as it is. Letter keys without a shifted input type the same thing with shift held, while
+ * other keys type as usual.
+ * <p>
+ * The compiled table is laid out as:
+ * <pre>
+ * int   magic ('WSKL')
+ * byte  version
+ * short layout count
+ * for each layout:
+ *     UTF   id
+ *     UTF   name
+ *     byte  type
+ *     short key count
+ *     for each key: byte keycode, char key, char shifted key, char input, char shifted input
+ * </pre>
+ */
+public class LayoutCompiler {
+    private static final int MAGIC = 0x57534B4C;
+    private static final int VERSION = 1;
+
+    // The keys of a US QWERTY keyboard: unshifted character, shifted character and LWJGL keycode.
+    private static final String QWERTY_KEYS = "`~1!2@3#4$5%6^7&8*9(0)-_=+qQwWeErRtTyYuUiIoOpP[{]}aAsSdDfFgGhHjJkKlL;:'\"\\|zZxXcCvVbBnNmM,<.>/?";
+    private static final byte[] QWERTY_KEYCODES = {
+            41, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13,
+            16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27,
+            30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40,
+            43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53
+    };
+
+    private static final char CHOSEONG_BASE = 0x1100;
+    private static final char JUNGSEONG_BASE = 0x1161;
+    private static final char JONGSEONG_BASE = 0x11A8;
+
+    /**
+     * Compiles layout files into a single table.
+     *
+     * @param args The file to write the table to, followed by the layout files. Each layout's id is its file name,
+     *             without the extension.
+     */
+    public static void main(String[] args) throws IOException {
+        List<Keymap> keymaps = new ArrayList<>();
+
+        for (int i = 1; i < args.length; i++) {
+            File file = new File(args[i]);
+            String id = file.getName().replaceFirst("\\.[^.]*$", "");
+
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                keymaps.add(parse(id, reader));
+            }
+        }
+
+        File output = new File(args[0]);
+        output.getAbsoluteFile().getParentFile().mkdirs();
+
+        try (OutputStream out = Files.newOutputStream(output.toPath())) {
+            write(keymaps, out);
+        }
+    }
+
+    /**
+     * Parses a layout from text.
+     *
+     * @throws IllegalArgumentException If the layout is malformed.
+     */
+    public static Keymap parse(String id, Reader text) throws IOException {
+        BufferedReader reader = new BufferedReader(text);
+
+        String name = id;
+        Keymap.Type type = Keymap.Type.DUBEOLSIK;
+        List<String[]> keys = new ArrayList<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            // Comments run from a '#' to the end of the line.
+            line = line.replaceFirst("(^|\\s+)#.*$", "").trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] fields = line.split("\\s+");
+
+            if (fields[0].equals("name")) {
+                name = line.substring(4).trim();
+            } else if (fields[0].equals("type")) {
+                type = Keymap.Type.valueOf(fields[1].toUpperCase());
+            } else if (fields[0].length() == 1 && fields.length >= 2 && fields.length <= 3) {
+                keys.add(fields);
+            } else {
+                throw new IllegalArgumentException("Malformed line " + lineNumber + " in layout " + id + ": " + line);
+            }
+        }
+
+        Keymap keymap = new Keymap(id, name, type);
+
+        for (String[] fields : keys) {
+            char key = fields[0].charAt(0);
+            int index = QWERTY_KEYS.indexOf(key);
+
+            if (index == -1 || index % 2 != 0) {
+                throw new IllegalArgumentException("Not an unshifted QWERTY key in layout " + id + ": " + key);
+            }
+
+            char shiftedKey = QWERTY_KEYS.charAt(index + 1);
+            char input = parseInput(id, type, fields[1]);
+            char shiftedInput;
+
+            if (fields.length == 3) {
+                shiftedInput = parseInput(id, type, fields[2]);
+            } else {
+                shiftedInput = Character.isLetter(key) ? input : 0;
+            }
+
+            keymap.register(QWERTY_KEYCODES[index / 2], key, shiftedKey, input, shiftedInput);
+        }
+
+        return keymap;
+    }
+
+    private static char parseInput(String id, Keymap.Type type, String field) {
+        if (field.length() == 1) {
+            char input = field.charAt(0);
+
+            if (type == Keymap.Type.SEBEOLSIK) {
+                if (HangulParser.isJungseong(input)) {
+                    return (char) (JUNGSEONG_BASE + HangulParser.jungseongIndex(input));
+                }
+
+                if (HangulParser.withinHangulJamo(input)) {
+                    throw new IllegalArgumentException("Consonant without a position in layout " + id + ": " + field);
+                }
+            }
+
+            return input;
+        }
+
+        if (type == Keymap.Type.SEBEOLSIK && field.length() == 2) {
+            if (field.charAt(1) == '-' && HangulParser.choseongIndex(field.charAt(0)) != -1) {
+                return (char) (CHOSEONG_BASE + HangulParser.choseongIndex(field.charAt(0)));
+            }
+
+            if (field.charAt(0) == '-' && HangulParser.isJongseong(field.charAt(1))) {
+                return (char) (JONGSEONG_BASE + HangulParser.jongseongIndex(field.charAt(1)));
+            }
+        }
+
+        throw new IllegalArgumentException("Not a valid input in layout " + id + ": " + field);
+    }
+
+    public static void write(List<Keymap> keymaps, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(keymaps.size());
+
+        for (Keymap keymap : keymaps) {
+            out.writeUTF(keymap.getId());
+            out.writeUTF(keymap.getName());
+            out.writeByte(keymap.getType().ordinal());
+
+            List<Keymap.Key> keys = keymap.getKeys();
+            out.writeShort(keys.size());
+
+            for (Keymap.Key key : keys) {
+                out.writeByte(key.getKeycode());
+                out.writeChar(key.getKey());
+                out.writeChar(key.getShiftedKey());
+                out.writeChar(key.getInput());
+                out.writeChar(key.getShiftedInput());
+            }
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Reads a compiled table of layouts.
+     *
+     * @throws IOException If the table is truncated or isn't a layout table.
+     */
+    public static List<Keymap> read(byte[] table) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(table));
+
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not a compiled layout table");
+        }
+
+        int layoutCount = in.readUnsignedShort();
+        List<Keymap> keymaps = new ArrayList<>(layoutCount);
+
+        for (int i = 0; i < layoutCount; i++) {
+            Keymap keymap = new Keymap(in.readUTF(), in.readUTF(), Keymap.Type.values()[in.readUnsignedByte()]);
+
+            int keyCount = in.readUnsignedShort();
+            for (int j = 0; j < keyCount; j++) {
+                keymap.register(in.readUnsignedByte(), in.readChar(), in.readChar(), in.readChar(), in.readChar());
+            }
+
+            keymaps.add(keymap);
+        }
+
+        return keymaps;
+    }
+}
@@ -0,0 +1,149 @@
+package site.hackery.wonseok.util.ngram;
+
+import site.hackery.wonseok.util.keymap.Keymap;
+import site.hackery.wonseok.util.keymap.KoreanKeymaps;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Tells whether a word was typed in the wrong layout, i.e. 'dkssud' typed with the IME off, when '안녕' was meant.
+ * <p>
+ * Each keystroke of a word is scored twice: as the Latin letter it types with the IME off, and as the 자모 it types
+ * through a 두벌식 keymap, each against an {@link NgramModel} of its language. Scoring a keystroke is a few array
+ * reads and additions, without allocating, so it can run on every keystroke.
+ */
+public class LayoutDetector {
+    private static final String MODELS_RESOURCE = "/wonseok/ngrams.bin";
+
+    private static final NgramModel[] MODELS = load();
+
+    /**
+     * Words shorter than this are too ambiguous to judge.
+     */
+    public static final int MIN_LENGTH = 3;
+
+    // How much more likely the other layout has to be, in cost units per symbol, including the end of the word.
+    private static final int MARGIN = NgramModel.COST_SCALE;
+
+    private final NgramModel latinModel;
+    private final NgramModel hangulModel;
+
+    // The symbol each key types through the keymap, for ASCII keys.
+    private final byte[] hangulSymbols = new byte[128];
+
+    private int length;
+    private int latinFirst, latinSecond, latinCost;
+    private int hangulFirst, hangulSecond, hangulCost;
+
+    /**
+     * Detects Korean typed through {@link KoreanKeymaps#DUBEOLSIK}.
+     */
+    public LayoutDetector() {
+        this(MODELS[0], MODELS[1], KoreanKeymaps.DUBEOLSIK);
+    }
+
+    /**
+     * @param keymap A 두벌식 keymap.
+     */
+    public LayoutDetector(NgramModel latinModel, NgramModel hangulModel, Keymap keymap) {
+        this.latinModel = latinModel;
+        this.hangulModel = hangulModel;
+
+        for (char key = 0; key < hangulSymbols.length; key++) {
+            if (NgramModel.latinSymbol(key) != NgramModel.BOUNDARY) {
+                hangulSymbols[key] = (byte) NgramModel.hangulSymbol(keymap.getInput(key));
+            }
+        }
+    }
+
+    /**
+     * Scores the next keystroke of the current word.
+     *
+     * @return Whether the key is a letter in both layouts. If it isn't, it isn't scored, and the caller should treat
+     *         it as the end of the word.
+     */
+    public boolean feed(char key) {
+        if (key >= hangulSymbols.length || hangulSymbols[key] == NgramModel.BOUNDARY) {
+            return false;
+        }
+
+        int latin = NgramModel.latinSymbol(key);
+        latinCost += latinModel.cost(latinFirst, latinSecond, latin);
+        latinFirst = latinSecond;
+        latinSecond = latin;
+
+        int hangul = hangulSymbols[key];
+        hangulCost += hangulModel.cost(hangulFirst, hangulSecond, hangul);
+        hangulFirst = hangulSecond;
+        hangulSecond = hangul;
+
+        length++;
+        return true;
+    }
+
+    /**
+     * Starts a new word.
+     */
+    public void reset() {
+        length = 0;
+        latinFirst = latinSecond = latinCost = 0;
+        hangulFirst = hangulSecond = hangulCost = 0;
+    }
+
+    /**
+     * @return The number of keystrokes scored since the word started.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return The cost of the word so far as Latin letters, if it ended here. Lower is more likely.
+     */
+    public int getLatinCost() {
+        return latinCost + latinModel.cost(latinFirst, latinSecond, NgramModel.BOUNDARY);
+    }
+
+    /**
+     * @return The cost of the word so far as 자모, if it ended here. Lower is more likely.
+     */
+    public int getHangulCost() {
+        return hangulCost + hangulModel.cost(hangulFirst, hangulSecond, NgramModel.BOUNDARY);
+    }
+
+    /**
+     * @return Whether the word so far is much more likely to be Korean than Latin letters.
+     */
+    public boolean looksLikeHangul() {
+        return length >= MIN_LENGTH && getLatinCost() - getHangulCost() > MARGIN * (length + 1);
+    }
+
+    /**
+     * @return Whether the word so far is much more likely to be Latin letters than Korean.
+     */
+    public boolean looksLikeLatin() {
+        return length >= MIN_LENGTH && getHangulCost() - getLatinCost() > MARGIN * (length + 1);
+    }
+
+    private static NgramModel[] load() {
+        try (InputStream stream = LayoutDetector.class.getResourceAsStream(MODELS_RESOURCE)) {
+            if (stream == null) {
+                throw new IllegalStateException("Missing n-gram models: " + MODELS_RESOURCE);
+            }
+
+            byte[] table = new byte[2 * NgramModel.SYMBOLS * NgramModel.SYMBOLS * NgramModel.SYMBOLS + 64];
+            int length = 0;
+            int read;
+
+            while ((read = stream.read(table, length, table.length - length)) > 0) {
+                length += read;
+            }
+
+            return NgramModel.read(Arrays.copyOf(table, length));
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't load n-gram models", e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package site.hackery.wonseok.util.ngram;
+
+import site.hackery.wonseok.util.HangulParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Trains the {@link NgramModel}s used by {@link LayoutDetector} from plain text, one model per language.
+ * <p>
+ * Training text is ordinary prose, one or more sentences per line, with '#' starting a comment. Anything that isn't a
+ * letter of the model's language separates words. Korean syllables are broken down into the 자모 typed for them.
+ * <p>
+ * Probabilities are interpolated between trigrams, bigrams, single letters and a uniform floor, so that letter
+ * combinations missing from the text are unlikely rather than impossible.
+ */
+public class NgramCompiler {
+    private static final int SYMBOLS = NgramModel.SYMBOLS;
+
+    // How much each order is trusted over the orders below it.
+    private static final double TRIGRAM_WEIGHT = 0.6;
+    private static final double BIGRAM_WEIGHT = 0.7;
+    private static final double UNIGRAM_WEIGHT = 0.9;
+
+    /**
+     * Trains both models into a single table.
+     *
+     * @param args The file to write the table to, followed by the English training text and the Korean training text.
+     */
+    public static void main(String[] args) throws IOException {
+        NgramModel latin;
+        NgramModel hangul;
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(args[1]), StandardCharsets.UTF_8)) {
+            latin = train(reader, false);
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(args[2]), StandardCharsets.UTF_8)) {
+            hangul = train(reader, true);
+        }
+
+        File output = new File(args[0]);
+        output.getAbsoluteFile().getParentFile().mkdirs();
+
+        try (OutputStream out = Files.newOutputStream(output.toPath())) {
+            NgramModel.write(latin, hangul, out);
+        }
+    }
+
+    /**
+     * Trains a model from text.
+     *
+     * @param hangul Whether to train on Hangul, rather than Latin letters.
+     */
+    public static NgramModel train(Reader text, boolean hangul) throws IOException {
+        Counts counts = new Counts();
+        BufferedReader reader = new BufferedReader(text);
+        char[] jamo = new char[HangulParser.MAX_ATOMIC_JAMO];
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.replaceFirst("(^|\\s+)#.*$", "");
+
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+
+                if (!hangul) {
+                    counts.add(NgramModel.latinSymbol(c));
+                } else if (HangulParser.withinHangulSyllables(c)) {
+                    int length = HangulParser.deconstruct(c, jamo, 0);
+
+                    for (int j = 0; j < length; j++) {
+                        counts.add(NgramModel.hangulSymbol(jamo[j]));
+                    }
+                } else {
+                    counts.add(NgramModel.hangulSymbol(c));
+                }
+            }
+
+            counts.add(NgramModel.BOUNDARY);
+        }
+
+        return counts.toModel(hangul ? SYMBOLS : 27);
+    }
+
+    private static class Counts {
+        private final int[] unigrams = new int[SYMBOLS];
+        private final int[] bigrams = new int[SYMBOLS * SYMBOLS];
+        private final int[] trigrams = new int[SYMBOLS * SYMBOLS * SYMBOLS];
+        private int total;
+
+        private int first = NgramModel.BOUNDARY;
+        private int second = NgramModel.BOUNDARY;
+
+        void add(int symbol) {
+            // Runs of separators are a single word boundary.
+            if (symbol == NgramModel.BOUNDARY && second == NgramModel.BOUNDARY) {
+                return;
+            }
+
+            unigrams[symbol]++;
+            bigrams[second * SYMBOLS + symbol]++;
+            trigrams[(first * SYMBOLS + second) * SYMBOLS + symbol]++;
+            total++;
+
+            first = second;
+            second = symbol;
+        }
+
+        /**
+         * @param alphabet The number of symbols the language uses, including the boundary.
+         */
+        NgramModel toModel(int alphabet) {
+            // How often each symbol and pair of symbols starts an n-gram, to normalize by.
+            int[] unigramContexts = new int[SYMBOLS];
+            int[] bigramContexts = new int[SYMBOLS * SYMBOLS];
+
+            for (int i = 0; i < bigrams.length; i++) {
+                unigramContexts[i / SYMBOLS] += bigrams[i];
+            }
+
+            for (int i = 0; i < trigrams.length; i++) {
+                bigramContexts[i / SYMBOLS] += trigrams[i];
+            }
+
+            byte[] costs = new byte[SYMBOLS * SYMBOLS * SYMBOLS];
+
+            for (int a = 0; a < SYMBOLS; a++) {
+                for (int b = 0; b < SYMBOLS; b++) {
+                    for (int c = 0; c < SYMBOLS; c++) {
+                        double probability = (1 - UNIGRAM_WEIGHT) / alphabet
+                                + UNIGRAM_WEIGHT * unigrams[c] / Math.max(total, 1);
+
+                        if (unigramContexts[b] > 0) {
+                            probability = (1 - BIGRAM_WEIGHT) * probability
+                                    + BIGRAM_WEIGHT * bigrams[b * SYMBOLS + c] / unigramContexts[b];
+                        }
+
+                        if (bigramContexts[a * SYMBOLS + b] > 0) {
+                            probability = (1 - TRIGRAM_WEIGHT) * probability
+                                    + TRIGRAM_WEIGHT * trigrams[(a * SYMBOLS + b) * SYMBOLS + c] / bigramContexts[a * SYMBOLS + b];
+                        }
+
+                        long cost = Math.round(-Math.log(probability) * NgramModel.COST_SCALE);
+                        costs[(a * SYMBOLS + b) * SYMBOLS + c] = (byte) Math.min(cost, 255);
+                    }
+                }
+            }
+
+            return new NgramModel(costs);
+        }
+    }
+}
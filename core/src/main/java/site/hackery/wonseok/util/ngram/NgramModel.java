@@ -0,0 +1,119 @@
+package site.hackery.wonseok.util.ngram;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A character trigram model, giving the cost of each letter given the two before it.
+ * <p>
+ * Both languages share one alphabet of {@link #SYMBOLS} symbols, so that a keystroke can be scored as either without
+ * any lookups beyond its symbol: 0 is the edge of a word, English uses 1 to 26 for 'a' to 'z', and Korean uses 1 to 33
+ * for the 자모 a 두벌식 keyboard types, with compound vowels and consonant clusters split into the 자모 typed for
+ * them. Costs are negative log probabilities, in sixteenths of a nat, and stored in a byte each, so a whole model is
+ * a single flat array of under 40 kilobytes.
+ */
+public class NgramModel {
+    /**
+     * The size of the alphabet, including the edge of a word.
+     */
+    public static final int SYMBOLS = 34;
+
+    /**
+     * The symbol for the edge of a word, before its first letter and after its last.
+     */
+    public static final int BOUNDARY = 0;
+
+    /**
+     * How many units of cost make a nat.
+     */
+    public static final int COST_SCALE = 16;
+
+    private static final int MAGIC = 0x57534E47;
+    private static final int VERSION = 1;
+
+    private static final String HANGUL_JAMO = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎㅏㅐㅑㅒㅓㅔㅕㅖㅗㅛㅜㅠㅡㅣ";
+
+    private final byte[] costs;
+
+    /**
+     * @param costs The cost of each trigram, indexed by {@code (first * SYMBOLS + second) * SYMBOLS + next}.
+     */
+    public NgramModel(byte[] costs) {
+        if (costs.length != SYMBOLS * SYMBOLS * SYMBOLS) {
+            throw new IllegalArgumentException("Expected " + SYMBOLS * SYMBOLS * SYMBOLS + " costs, got " + costs.length);
+        }
+
+        this.costs = costs;
+    }
+
+    /**
+     * @return The cost of <code>next</code> following <code>first</code> and <code>second</code>.
+     */
+    public int cost(int first, int second, int next) {
+        return costs[(first * SYMBOLS + second) * SYMBOLS + next] & 0xFF;
+    }
+
+    /**
+     * @return The symbol for a Latin letter, ignoring case, or {@link #BOUNDARY} if it isn't one.
+     */
+    public static int latinSymbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+
+        return BOUNDARY;
+    }
+
+    /**
+     * @return The symbol for a compatibility 자모 that a 두벌식 keyboard can type in one keystroke, or
+     *         {@link #BOUNDARY} if it isn't one.
+     */
+    public static int hangulSymbol(char jamo) {
+        return HANGUL_JAMO.indexOf(jamo) + 1;
+    }
+
+    /**
+     * Writes the models for both languages into a single table.
+     */
+    public static void write(NgramModel latin, NgramModel hangul, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(SYMBOLS);
+        out.write(latin.costs);
+        out.write(hangul.costs);
+
+        out.flush();
+    }
+
+    /**
+     * Reads a table written by {@link #write}.
+     *
+     * @return The Latin and Hangul models.
+     * @throws IOException If the table is truncated or isn't a model table.
+     */
+    public static NgramModel[] read(byte[] table) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(table));
+
+        if (in.readInt() != MAGIC || in.readByte() != VERSION || in.readUnsignedByte() != SYMBOLS) {
+            throw new IOException("Not a compiled n-gram table");
+        }
+
+        NgramModel[] models = new NgramModel[2];
+        for (int i = 0; i < models.length; i++) {
+            byte[] costs = new byte[SYMBOLS * SYMBOLS * SYMBOLS];
+            in.readFully(costs);
+            models[i] = new NgramModel(costs);
+        }
+
+        return models;
+    }
+}
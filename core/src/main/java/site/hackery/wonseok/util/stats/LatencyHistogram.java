@@ -0,0 +1,120 @@
+package site.hackery.wonseok.util.stats;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in nanoseconds, with one bucket per power of two.
+ * <p>
+ * Recording is lock-free and doesn't allocate, so it can be done on every keystroke. Bucket {@code b} counts latencies
+ * from {@code 2^(b-1)} up to (but not including) {@code 2^b} nanoseconds, so reported percentiles are upper bounds
+ * within a factor of two.
+ */
+public class LatencyHistogram {
+    private static final int BUCKET_COUNT = 64;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param startNanos A time from {@link System#nanoTime()}, before whatever is being measured.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        buckets.incrementAndGet(bucket(nanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+            // Someone else recorded a new maximum first, so try again against theirs.
+        }
+    }
+
+    static int bucket(long nanos) {
+        return BUCKET_COUNT - Long.numberOfLeadingZeros(nanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getMeanNanos() {
+        long n = count.get();
+        return n == 0 ? 0 : totalNanos.get() / n;
+    }
+
+    /**
+     * @param percentile A percentile, from 0 to 100.
+     * @return An upper bound on that percentile latency, in nanoseconds, or 0 if nothing has been recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(n * percentile / 100);
+        long seen = 0;
+
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            seen += buckets.get(b);
+
+            if (seen >= rank) {
+                return b == 0 ? 0 : Math.min((1L << b) - 1, maxNanos.get());
+            }
+        }
+
+        return maxNanos.get();
+    }
+
+    /**
+     * Writes a one-line summary, followed by the non-empty buckets.
+     */
+    public void dump(Appendable out) throws IOException {
+        out.append(String.format("%s: count=%d mean=%dns p50<=%dns p99<=%dns max=%dns%n", name, getCount(),
+                getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99), getMaxNanos()));
+
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            long bucketCount = buckets.get(b);
+
+            if (bucketCount > 0) {
+                long lower = b == 0 ? 0 : 1L << (b - 1);
+                out.append(String.format("    [%d, %d) ns: %d%n", lower, 1L << b, bucketCount));
+            }
+        }
+    }
+
+    public void reset() {
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            buckets.set(b, 0);
+        }
+
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+}
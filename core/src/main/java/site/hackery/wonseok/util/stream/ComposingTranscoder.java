@@ -0,0 +1,119 @@
+package site.hackery.wonseok.util.stream;
+
+import site.hackery.wonseok.util.HangulParser;
+
+/**
+ * Constructs syllables from runs of basic 자모, passing everything else through as-is.
+ * <p>
+ * Each unbroken run of Hangul compatibility 자모 comes out exactly as {@link HangulParser#construct(char[])} would
+ * construct it. Only the last few 자모 of a run are held on to, since joining and syllable boundaries never need to
+ * look more than a couple of 자모 ahead.
+ */
+public class ComposingTranscoder extends HangulTranscoder {
+    // The joiner holds up to two basic 자모, since whether they join depends on the 자모 after them.
+    private char first;
+    private char second;
+    private int joinerCount;
+
+    // The grouper holds up to four joined 자모, the most needed to find where a syllable ends.
+    private final char[] group = new char[4];
+    private int groupCount;
+
+    @Override
+    protected void accept(char c) {
+        if (!HangulParser.withinHangulJamo(c)) {
+            finish();
+            emit(c);
+            return;
+        }
+
+        if (joinerCount < 2) {
+            if (joinerCount == 0) {
+                first = c;
+            } else {
+                second = c;
+            }
+
+            joinerCount++;
+            return;
+        }
+
+        char joined = HangulParser.join(first, second);
+
+        if (joined != 0 && !HangulParser.isJungseong(c)) {
+            // Don't join if there's a vowel afterwards, or '말해' would become '마ㅀㅐ'.
+            group(joined);
+            first = c;
+            joinerCount = 1;
+        } else {
+            group(first);
+            first = second;
+            second = c;
+        }
+    }
+
+    /**
+     * Runs of 자모 are constructed as a whole, so input can be split anywhere outside them.
+     */
+    @Override
+    public boolean canSplitBefore(char c) {
+        return !HangulParser.withinHangulJamo(c);
+    }
+
+    private void group(char jamo) {
+        group[groupCount++] = jamo;
+
+        if (groupCount == group.length) {
+            emitSyllable(HangulParser.isJongseong(group[2]) && !HangulParser.isJungseong(group[3]) ? 3 : 2);
+        }
+    }
+
+    private void emitSyllable(int size) {
+        char syllable = size == 3
+                ? HangulParser.constructSyllable(group[0], group[1], group[2])
+                : HangulParser.constructSyllable(group[0], group[1], (char) 0);
+
+        if (syllable != 0) {
+            emit(syllable);
+        } else {
+            for (int i = 0; i < size; i++)
+                emit(group[i]);
+        }
+
+        groupCount -= size;
+        System.arraycopy(group, size, group, 0, groupCount);
+    }
+
+    @Override
+    protected void finish() {
+        if (joinerCount == 2) {
+            char joined = HangulParser.join(first, second);
+
+            if (joined != 0) {
+                group(joined);
+            } else {
+                group(first);
+                group(second);
+            }
+        } else if (joinerCount == 1) {
+            group(first);
+        }
+
+        joinerCount = 0;
+
+        while (groupCount >= 2) {
+            emitSyllable(groupCount == 3 && HangulParser.isJongseong(group[2]) ? 3 : 2);
+        }
+
+        if (groupCount == 1) {
+            emit(group[0]);
+            groupCount = 0;
+        }
+    }
+
+    @Override
+    protected void implReset() {
+        joinerCount = 0;
+        groupCount = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package site.hackery.wonseok.util.stream;
+
+import site.hackery.wonseok.util.HangulParser;
+
+/**
+ * Atomically deconstructs every Hangul syllable into its constituent 자모, passing everything else through as-is.
+ *
+ * @see HangulParser#deconstruct(char)
+ */
+public class DecomposingTranscoder extends HangulTranscoder {
+    private final char[] jamo = new char[HangulParser.MAX_ATOMIC_JAMO];
+
+    @Override
+    protected void accept(char c) {
+        int length = HangulParser.deconstruct(c, jamo, 0);
+
+        if (length == 0) {
+            emit(c);
+        }
+
+        for (int i = 0; i < length; i++) {
+            emit(jamo[i]);
+        }
+    }
+
+    /**
+     * Each character is converted on its own, so input can be split anywhere.
+     */
+    @Override
+    public boolean canSplitBefore(char c) {
+        return true;
+    }
+}
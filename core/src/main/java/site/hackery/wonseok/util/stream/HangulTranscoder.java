@@ -0,0 +1,124 @@
+package site.hackery.wonseok.util.stream;
+
+import java.nio.CharBuffer;
+import java.nio.charset.CoderResult;
+
+/**
+ * Converts a stream of characters in a single pass, in the style of a {@link java.nio.charset.CharsetDecoder}.
+ * <p>
+ * Input can be fed in buffers of any size; anything that can't be converted until more input arrives is held on
+ * to between calls to {@link #transcode(CharBuffer, CharBuffer, boolean)}, so arbitrarily large inputs are
+ * converted in constant memory.
+ */
+public abstract class HangulTranscoder {
+    private final char[] pending = new char[16];
+    private int pendingStart;
+    private int pendingEnd;
+
+    private boolean finished;
+
+    /**
+     * Converts as much of <code>in</code> into <code>out</code> as possible.
+     *
+     * @param in         The characters to convert.
+     * @param out        The buffer to write converted characters into.
+     * @param endOfInput Whether <code>in</code> holds the last of the input. Once this is passed, the transcoder
+     *                   must be {@link #reset()} before being used again.
+     * @return {@link CoderResult#UNDERFLOW} if all of <code>in</code> was consumed (and, at the end of input, all
+     *         output written), or {@link CoderResult#OVERFLOW} if <code>out</code> filled up first.
+     */
+    public final CoderResult transcode(CharBuffer in, CharBuffer out, boolean endOfInput) {
+        while (true) {
+            while (pendingStart < pendingEnd) {
+                if (!out.hasRemaining()) {
+                    return CoderResult.OVERFLOW;
+                }
+
+                out.put(pending[pendingStart++]);
+            }
+
+            pendingStart = 0;
+            pendingEnd = 0;
+
+            if (in.hasRemaining()) {
+                accept(in.get());
+            } else if (endOfInput && !finished) {
+                finished = true;
+                finish();
+            } else {
+                return CoderResult.UNDERFLOW;
+            }
+        }
+    }
+
+    /**
+     * Converts an entire piece of text in one go.
+     *
+     * @param text The text to convert.
+     * @return The converted text.
+     */
+    public final String transcode(CharSequence text) {
+        reset();
+
+        CharBuffer in = CharBuffer.wrap(text);
+        CharBuffer out = CharBuffer.allocate(text.length() + 16);
+
+        while (transcode(in, out, true).isOverflow()) {
+            CharBuffer grown = CharBuffer.allocate(out.capacity() * 2);
+            out.flip();
+            out = grown.put(out);
+        }
+
+        out.flip();
+        reset();
+
+        return out.toString();
+    }
+
+    /**
+     * Resets the transcoder, discarding anything pending, so that it can convert a new input.
+     */
+    public final void reset() {
+        pendingStart = 0;
+        pendingEnd = 0;
+        finished = false;
+
+        implReset();
+    }
+
+    /**
+     * Whether the input can be split just before <code>c</code>, and each part converted by its own transcoder, giving
+     * the same output as converting it all in one go. That's the case when nothing before <code>c</code> converts
+     * differently depending on what follows it, and <code>c</code> converts the same as it would at the very start of
+     * the input.
+     * <p>
+     * This only looks at <code>c</code>, never at the transcoder's state. By default, input is never split.
+     *
+     * @see ParallelTranscoder
+     */
+    public boolean canSplitBefore(char c) {
+        return false;
+    }
+
+    /**
+     * Queues a converted character for output.
+     * At most 8 characters may be queued by a single call to {@link #accept(char)} or {@link #finish()}.
+     */
+    protected final void emit(char c) {
+        pending[pendingEnd++] = c;
+    }
+
+    /**
+     * Converts a single input character, {@link #emit(char) emitting} whatever output it can.
+     */
+    protected abstract void accept(char c);
+
+    /**
+     * Called once at the end of input, to emit anything still held on to.
+     */
+    protected void finish() {
+    }
+
+    protected void implReset() {
+    }
+}
@@ -0,0 +1,56 @@
+package site.hackery.wonseok.util.stream;
+
+import site.hackery.wonseok.util.JamoComposer;
+import site.hackery.wonseok.util.keymap.Keymap;
+
+/**
+ * Types text as if it were keystrokes on a QWERTY keyboard with a Korean layout, i.e. "dkssud" into "안녕" with
+ * 두벌식. Characters the layout doesn't map pass through as-is, ending the syllable being composed.
+ */
+public class KeystrokeTranscoder extends HangulTranscoder {
+    private final Keymap keymap;
+    private final JamoComposer composer;
+
+    public KeystrokeTranscoder(Keymap keymap) {
+        this.keymap = keymap;
+        this.composer = keymap.newComposer();
+    }
+
+    @Override
+    protected void accept(char c) {
+        char input = keymap.getInput(c);
+
+        if (input != 0 && composer.canCompose(input)) {
+            emitIfAny(composer.compose(input));
+            return;
+        }
+
+        emitIfAny(composer.commit());
+        emit(input != 0 ? input : c);
+    }
+
+    /**
+     * Characters the layout doesn't map to a 자모 end the syllable being composed, so input can be split before them.
+     */
+    @Override
+    public boolean canSplitBefore(char c) {
+        char input = keymap.getInput(c);
+        return input == 0 || !composer.canCompose(input);
+    }
+
+    @Override
+    protected void finish() {
+        emitIfAny(composer.commit());
+    }
+
+    @Override
+    protected void implReset() {
+        composer.reset();
+    }
+
+    private void emitIfAny(char c) {
+        if (c != 0) {
+            emit(c);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package site.hackery.wonseok.util.stream;
+
+import site.hackery.wonseok.util.HangulNormalizer;
+
+/**
+ * Composes decomposed (NFD) Hangul into syllables, turning any conjoining 자모 left over into compatibility 자모.
+ *
+ * @see HangulNormalizer#normalize(CharSequence)
+ */
+public class NormalizingTranscoder extends HangulTranscoder {
+    // The last character is held on to, since the next one might compose with it. It can be NUL, so whether there is
+    // one is kept separately.
+    private char held;
+    private boolean holding;
+
+    @Override
+    protected void accept(char c) {
+        if (holding) {
+            char composed = HangulNormalizer.compose(held, c);
+
+            if (composed != 0) {
+                held = composed;
+                return;
+            }
+
+            emitHeld();
+        }
+
+        held = c;
+        holding = true;
+    }
+
+    /**
+     * Anything but a conjoining vowel or final consonant starts a new syllable, so input can be split before it.
+     */
+    @Override
+    public boolean canSplitBefore(char c) {
+        return !HangulNormalizer.composesWithPrevious(c);
+    }
+
+    @Override
+    protected void finish() {
+        if (holding) {
+            emitHeld();
+        }
+    }
+
+    @Override
+    protected void implReset() {
+        held = 0;
+        holding = false;
+    }
+
+    private void emitHeld() {
+        char compatibility = HangulNormalizer.toCompatibility(held);
+
+        emit(compatibility != 0 ? compatibility : held);
+        held = 0;
+        holding = false;
+    }
+}
@@ -0,0 +1,125 @@
+package site.hackery.wonseok.util.stream;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Converts large texts on a {@link ForkJoinPool}, producing exactly the same output as a single
+ * {@link HangulTranscoder} would.
+ * <p>
+ * The text is only ever split where the transcoder says it {@link HangulTranscoder#canSplitBefore(char) can be}, i.e.
+ * just before a character outside the 자모 block when composing, or before anything but a letter when transliterating
+ * romaja. Each chunk can then be converted on its own and the results stitched back together. A chunk that has
+ * nowhere safe to split, like a long run of 자모 when composing (as in 'ㅏㄱㅏㄱㅏ', where syllable boundaries
+ * depend on every 자모 since the start of the run), just runs on into the next one.
+ */
+public class ParallelTranscoder {
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final Supplier<? extends HangulTranscoder> transcoders;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * @param transcoders Creates a transcoder for each chunk, i.e. <code>ComposingTranscoder::new</code>.
+     */
+    public ParallelTranscoder(Supplier<? extends HangulTranscoder> transcoders) {
+        this(transcoders, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelTranscoder(Supplier<? extends HangulTranscoder> transcoders, ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.transcoders = transcoders;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Converts an entire piece of text, splitting it up across the pool.
+     *
+     * @param text The text to convert.
+     * @return The converted text.
+     */
+    public String transcode(CharSequence text) {
+        if (text.length() <= chunkSize) {
+            return transcoders.get().transcode(text);
+        }
+
+        return pool.invoke(new SplitTask(text));
+    }
+
+    /**
+     * Finds the first safe place to split <code>text</code> at or after <code>index</code>.
+     */
+    private static int findBoundary(HangulTranscoder transcoder, CharSequence text, int index) {
+        while (index < text.length() && !transcoder.canSplitBefore(text.charAt(index))) {
+            index++;
+        }
+
+        return index;
+    }
+
+    private class SplitTask extends RecursiveTask<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence text;
+
+        SplitTask(CharSequence text) {
+            this.text = text;
+        }
+
+        @Override
+        protected String compute() {
+            List<ChunkTask> chunks = new ArrayList<>();
+
+            // Each chunk finds its own boundaries from its nominal range, so neighbouring chunks always agree.
+            for (int start = 0; start < text.length(); start += chunkSize) {
+                chunks.add(new ChunkTask(text, start, Math.min(start + chunkSize, text.length())));
+            }
+
+            invokeAll(chunks);
+
+            StringBuilder builder = new StringBuilder(text.length());
+            for (ChunkTask chunk : chunks) {
+                builder.append(chunk.join());
+            }
+
+            return builder.toString();
+        }
+    }
+
+    private class ChunkTask extends RecursiveTask<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence text;
+        private final int nominalStart;
+        private final int nominalEnd;
+
+        ChunkTask(CharSequence text, int nominalStart, int nominalEnd) {
+            this.text = text;
+            this.nominalStart = nominalStart;
+            this.nominalEnd = nominalEnd;
+        }
+
+        @Override
+        protected String compute() {
+            HangulTranscoder transcoder = transcoders.get();
+
+            int start = nominalStart == 0 ? 0 : findBoundary(transcoder, text, nominalStart);
+            int end = findBoundary(transcoder, text, nominalEnd);
+
+            if (start >= end) {
+                return "";
+            }
+
+            return transcoder.transcode(CharBuffer.wrap(text, start, end));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package site.hackery.wonseok.util.stream;
+
+import site.hackery.wonseok.util.RomajaTransliterator;
+
+/**
+ * Transliterates romanized Korean into Hangul.
+ *
+ * @see RomajaTransliterator
+ */
+public class RomajaTranscoder extends HangulTranscoder {
+    private final RomajaTransliterator transliterator = new RomajaTransliterator();
+    private final char[] output = new char[RomajaTransliterator.MAX_OUTPUT];
+
+    @Override
+    protected void accept(char c) {
+        emitAll(transliterator.feed(c, output, 0));
+    }
+
+    /**
+     * Anything but a letter ends the word being transliterated, so input can be split before it. Hyphens and
+     * apostrophes are the exception, since whether they're output depends on whether a word came before them.
+     */
+    @Override
+    public boolean canSplitBefore(char c) {
+        int index = Character.toLowerCase(c) - 'a';
+        return (index < 0 || index >= 26) && c != '-' && c != '\'';
+    }
+
+    @Override
+    protected void finish() {
+        emitAll(transliterator.flush(output, 0));
+    }
+
+    @Override
+    protected void implReset() {
+        transliterator.reset();
+    }
+
+    private void emitAll(int length) {
+        for (int i = 0; i < length; i++) {
+            emit(output[i]);
+        }
+    }
+}
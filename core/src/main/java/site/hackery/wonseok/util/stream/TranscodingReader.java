@@ -0,0 +1,61 @@
+package site.hackery.wonseok.util.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.CoderResult;
+
+/**
+ * A reader which converts the characters of another reader as they are read, through a {@link HangulTranscoder}.
+ */
+public class TranscodingReader extends Reader {
+    private final Reader in;
+    private final HangulTranscoder transcoder;
+
+    private final CharBuffer input;
+    private boolean endOfInput;
+
+    public TranscodingReader(Reader in, HangulTranscoder transcoder) {
+        this(in, transcoder, 8192);
+    }
+
+    public TranscodingReader(Reader in, HangulTranscoder transcoder, int bufferSize) {
+        this.in = in;
+        this.transcoder = transcoder;
+
+        this.input = CharBuffer.allocate(bufferSize);
+        this.input.flip();
+
+        transcoder.reset();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+
+        // Keep reading until we have something to return, but don't block for more than that.
+        while (out.position() == off) {
+            CoderResult result = transcoder.transcode(input, out, endOfInput);
+
+            if (result.isOverflow() || endOfInput) {
+                break;
+            }
+
+            input.compact();
+            endOfInput = in.read(input) == -1;
+            input.flip();
+        }
+
+        int read = out.position() - off;
+        return read == 0 && endOfInput ? -1 : read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
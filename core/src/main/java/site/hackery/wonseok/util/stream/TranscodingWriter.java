@@ -0,0 +1,77 @@
+package site.hackery.wonseok.util.stream;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * A writer which converts characters through a {@link HangulTranscoder} before passing them on to another writer.
+ * <p>
+ * Since the transcoder may hold on to the last few characters until it knows how to convert them, {@link #flush()}
+ * only flushes what has been converted so far. The rest is written out on {@link #close()}.
+ */
+public class TranscodingWriter extends Writer {
+    private final Writer out;
+    private final HangulTranscoder transcoder;
+
+    private final CharBuffer output;
+    private boolean closed;
+
+    public TranscodingWriter(Writer out, HangulTranscoder transcoder) {
+        this(out, transcoder, 8192);
+    }
+
+    public TranscodingWriter(Writer out, HangulTranscoder transcoder, int bufferSize) {
+        this.out = out;
+        this.transcoder = transcoder;
+        this.output = CharBuffer.allocate(bufferSize);
+
+        transcoder.reset();
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        write(CharBuffer.wrap(cbuf, off, len), false);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        write(CharBuffer.wrap(str, off, off + len), false);
+    }
+
+    private void write(CharBuffer in, boolean endOfInput) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        while (transcoder.transcode(in, output, endOfInput).isOverflow()) {
+            flushOutput();
+        }
+    }
+
+    private void flushOutput() throws IOException {
+        out.write(output.array(), output.arrayOffset(), output.position());
+        output.clear();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushOutput();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        try {
+            write(CharBuffer.allocate(0), true);
+            flushOutput();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package site.hackery.wonseok.cli;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.stream.ComposingTranscoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// In the same package as TranscodingPipe, since only tests can set its map window.
+public class TranscodingPipeTest {
+    @Test
+    public void charactersAcrossMapWindows() throws IOException {
+        // One, two, three and four byte characters, so that every kind is split across windows of each size.
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("ㅁㅏㄹㅎㅐ a é 😀 ");
+        }
+
+        String expected = new ComposingTranscoder().transcode(text);
+        Path input = Files.createTempFile("wonseok", ".txt");
+
+        try {
+            Files.write(input, text.toString().getBytes(StandardCharsets.UTF_8));
+
+            for (int window = 4; window <= 13; window++) {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                new TranscodingPipe(new ComposingTranscoder(), Channels.newChannel(output), window).transfer(input);
+
+                String actual = new String(output.toByteArray(), StandardCharsets.UTF_8);
+                Assert.assertEquals("window " + window, expected, actual);
+            }
+        } finally {
+            Files.delete(input);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void windowTooSmall() {
+        new TranscodingPipe(new ComposingTranscoder(), Channels.newChannel(new ByteArrayOutputStream()), 3);
+    }
+}
@@ -0,0 +1,160 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.ChoseongIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+public class ChoseongIndexTest {
+    @Test
+    public void keys() {
+        Assert.assertEquals("ㅇㄴㅎㅅㅇ", ChoseongIndex.choseongKey("안녕하세요"));
+        Assert.assertEquals("ㄲㅊ steve", ChoseongIndex.choseongKey("꽃차 Steve"));
+    }
+
+    @Test
+    public void prefix() {
+        ChoseongIndex index = new ChoseongIndex();
+        index.addAll(Arrays.asList("안녕하세요", "안녕", "아니요", "감사합니다", "Steve"));
+
+        Assert.assertEquals(Arrays.asList("안녕", "아니요", "안녕하세요"), index.findByPrefix("ㅇㄴ"));
+        Assert.assertEquals(Arrays.asList("안녕", "아니요", "안녕하세요"), index.findByPrefix("안ㄴ"));
+        Assert.assertEquals(Collections.singletonList("아니요"), index.findByPrefix("ㅇㄴㅇ"));
+        Assert.assertEquals(Collections.singletonList("Steve"), index.findByPrefix("st"));
+        Assert.assertEquals(Collections.emptyList(), index.findByPrefix("ㄴ"));
+    }
+
+    @Test
+    public void substring() {
+        ChoseongIndex index = new ChoseongIndex();
+        index.add("안녕하세요");
+        index.add("감사합니다");
+        index.add("하하하");
+
+        Assert.assertEquals(Arrays.asList("안녕하세요"), index.findBySubstring("ㄴㅎ"));
+        // Matches three times, but should only be returned once.
+        Assert.assertEquals(Arrays.asList("하하하"), index.findBySubstring("ㅎㅎ"));
+        Assert.assertEquals(3, index.findBySubstring("ㅎ").size());
+    }
+
+    @Test
+    public void addAndRemove() {
+        ChoseongIndex index = new ChoseongIndex();
+
+        Assert.assertTrue(index.add("안녕"));
+        Assert.assertFalse(index.add("안녕"));
+        Assert.assertTrue(index.add("아니"));
+        Assert.assertEquals(2, index.size());
+
+        Assert.assertTrue(index.remove("안녕"));
+        Assert.assertFalse(index.remove("안녕"));
+        Assert.assertEquals(Collections.singletonList("아니"), index.findBySubstring("ㅇㄴ"));
+        Assert.assertEquals(1, index.size());
+    }
+
+    @Test
+    public void matchesLinearScan() {
+        Random random = new Random(0);
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            texts.add(randomText(random));
+        }
+
+        ChoseongIndex bulk = new ChoseongIndex();
+        bulk.addAll(texts.subList(0, 1000));
+
+        ChoseongIndex incremental = new ChoseongIndex();
+        for (String text : texts) {
+            incremental.add(text);
+        }
+        for (String text : texts.subList(1000, 2000)) {
+            incremental.remove(text);
+        }
+
+        List<String> remaining = new ArrayList<>(new LinkedHashSet<>(texts.subList(0, 1000)));
+        remaining.removeAll(texts.subList(1000, 2000));
+
+        for (int i = 0; i < 200; i++) {
+            String query = ChoseongIndex.choseongKey(randomText(random).substring(0, 1 + random.nextInt(2)));
+
+            List<String> expectedPrefix = new ArrayList<>();
+            List<String> expectedSubstring = new ArrayList<>();
+            for (String text : remaining) {
+                String key = ChoseongIndex.choseongKey(text);
+
+                if (key.startsWith(query)) {
+                    expectedPrefix.add(text);
+                }
+                if (key.contains(query)) {
+                    expectedSubstring.add(text);
+                }
+            }
+
+            assertSameElements(expectedPrefix, incremental.findByPrefix(query));
+            assertSameElements(expectedSubstring, incremental.findBySubstring(query));
+        }
+
+        Assert.assertEquals(new HashSet<>(texts.subList(0, 1000)).size(), bulk.size());
+        for (String text : texts.subList(0, 1000)) {
+            Assert.assertTrue(bulk.findByPrefix(text).contains(text));
+        }
+    }
+
+    @Test
+    public void reusesIds() {
+        Random random = new Random(1);
+        List<String> present = new ArrayList<>();
+        ChoseongIndex index = new ChoseongIndex();
+
+        // Strings come and go, so freed ids are reused for strings with the same keys as ones still in the index.
+        for (int round = 0; round < 20000; round++) {
+            if (present.size() > 50 || (!present.isEmpty() && random.nextBoolean())) {
+                Assert.assertTrue(index.remove(present.remove(random.nextInt(present.size()))));
+            } else {
+                String text = randomText(random);
+
+                if (index.add(text)) {
+                    present.add(text);
+                }
+            }
+        }
+
+        Assert.assertEquals(present.size(), index.size());
+
+        for (String text : present) {
+            String key = ChoseongIndex.choseongKey(text);
+            Assert.assertTrue(index.findByPrefix(key).contains(text));
+            Assert.assertTrue(index.findBySubstring(key.substring(1)).contains(text));
+        }
+
+        for (String text : present) {
+            Assert.assertTrue(index.remove(text));
+        }
+
+        Assert.assertEquals(Collections.emptyList(), index.findBySubstring(""));
+    }
+
+    private static String randomText(Random random) {
+        char[] text = new char[2 + random.nextInt(5)];
+        for (int i = 0; i < text.length; i++) {
+            // A few initials, so queries have plenty of matches.
+            text[i] = (char) (0xAC00 + random.nextInt(4) * 21 * 28 + random.nextInt(21 * 28));
+        }
+        return new String(text);
+    }
+
+    private static void assertSameElements(List<String> expected, List<String> actual) {
+        List<String> sortedExpected = new ArrayList<>(expected);
+        List<String> sortedActual = new ArrayList<>(actual);
+        Collections.sort(sortedExpected);
+        Collections.sort(sortedActual);
+        Assert.assertEquals(sortedExpected, sortedActual);
+    }
+}
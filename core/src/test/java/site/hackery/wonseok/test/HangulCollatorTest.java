@@ -0,0 +1,86 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.HangulCollator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class HangulCollatorTest {
+    @Test
+    public void syllables() {
+        List<String> names = new ArrayList<>(Arrays.asList("나", "각", "가기", "간", "가", "힣", "까"));
+        new HangulCollator().sort(names);
+
+        Assert.assertEquals(Arrays.asList("가", "가기", "각", "간", "까", "나", "힣"), names);
+    }
+
+    @Test
+    public void jamo() {
+        HangulCollator collator = new HangulCollator();
+
+        // A lone consonant sorts just before its syllables, not before every syllable.
+        List<String> names = new ArrayList<>(Arrays.asList("나", "ㄴ", "가", "ㄱ"));
+        collator.sort(names);
+        Assert.assertEquals(Arrays.asList("ㄱ", "가", "ㄴ", "나"), names);
+
+        // Compatibility and conjoining 자모 weigh the same as the syllable they spell.
+        Assert.assertArrayEquals(collator.getKey("\u1100\u1161\u11A8").toByteArray(), collator.getKey("\uAC01").toByteArray());
+        Assert.assertArrayEquals(collator.getKey("\u3131\u314F").toByteArray(), collator.getKey("\uAC00").toByteArray());
+        // A lone consonant after a syllable starts the next syllable, so it sorts before any final consonant.
+        Assert.assertTrue(collator.compare("\uAC00\u3131", "\uAC01") < 0);
+    }
+
+    @Test
+    public void mixed() {
+        List<String> names = new ArrayList<>(Arrays.asList("한국", "steve", "Alex", "123", "Steve"));
+        new HangulCollator().sort(names);
+
+        // Case is ignored, except to break ties.
+        Assert.assertEquals(Arrays.asList("123", "Alex", "Steve", "steve", "한국"), names);
+    }
+
+    @Test
+    public void choseongFirst() {
+        List<String> names = new ArrayList<>(Arrays.asList("가다", "거누", "가니", "가나", "고"));
+        new HangulCollator(HangulCollator.Order.CHOSEONG_FIRST).sort(names);
+
+        Assert.assertEquals(Arrays.asList("고", "가나", "가니", "거누", "가다"), names);
+    }
+
+    @Test
+    public void keysMatchComparator() {
+        HangulCollator collator = new HangulCollator();
+        Random random = new Random(42);
+        String alphabet = "가각간나ㄱㅏa B\u1100\u1161\u11A8";
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int j = random.nextInt(8); j >= 0; j--) {
+                name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            names.add(name.toString());
+        }
+
+        List<String> expected = new ArrayList<>(names);
+        Collections.sort(expected, (a, b) -> compareBytes(collator.getKey(a).toByteArray(), collator.getKey(b).toByteArray(), a, b));
+
+        collator.sort(names);
+        Assert.assertEquals(expected, names);
+    }
+
+    private static int compareBytes(byte[] a, byte[] b, String sourceA, String sourceB) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            if (a[i] != b[i]) {
+                return (a[i] & 0xFF) - (b[i] & 0xFF);
+            }
+        }
+
+        return a.length != b.length ? a.length - b.length : sourceA.compareTo(sourceB);
+    }
+}
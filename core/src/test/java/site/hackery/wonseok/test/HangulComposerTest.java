@@ -0,0 +1,61 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.HangulComposer;
+
+public class HangulComposerTest {
+    @Test
+    public void hello() {
+        Assert.assertEquals("안녕하세요", compose("ㅇㅏㄴㄴㅕㅇㅎㅏㅅㅔㅇㅛ"));
+    }
+
+    @Test
+    public void finalConsonantShift() {
+        HangulComposer composer = new HangulComposer();
+
+        Assert.assertEquals(0, composer.compose('ㅎ'));
+        Assert.assertEquals(0, composer.compose('ㅏ'));
+        Assert.assertEquals(0, composer.compose('ㅅ'));
+        Assert.assertEquals('핫', composer.getPreedit());
+
+        Assert.assertEquals('하', composer.compose('ㅔ'));
+        Assert.assertEquals('세', composer.getPreedit());
+    }
+
+    @Test
+    public void consonantClusterShift() {
+        Assert.assertEquals("말해", compose("ㅁㅏㄹㅎㅐ"));
+        Assert.assertEquals("않아", compose("ㅇㅏㄴㅎㅇㅏ"));
+        Assert.assertEquals("닭", compose("ㄷㅏㄹㄱ"));
+    }
+
+    @Test
+    public void vowelJoin() {
+        Assert.assertEquals("우와", compose("ㅇㅜㅇㅗㅏ"));
+        Assert.assertEquals("아ㅏ", compose("ㅇㅏㅏ"));
+    }
+
+    @Test
+    public void loneConsonantCluster() {
+        Assert.assertEquals("ㄳ", compose("ㄱㅅ"));
+        Assert.assertEquals("ㄱ사", compose("ㄱㅅㅏ"));
+    }
+
+    private static String compose(String jamo) {
+        HangulComposer composer = new HangulComposer();
+        StringBuilder builder = new StringBuilder();
+
+        for (char c : jamo.toCharArray()) {
+            char committed = composer.compose(c);
+
+            if (committed != 0)
+                builder.append(committed);
+        }
+
+        if (composer.isComposing())
+            builder.append(composer.commit());
+
+        return builder.toString();
+    }
+}
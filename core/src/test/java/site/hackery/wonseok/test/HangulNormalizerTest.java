@@ -0,0 +1,88 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.ChoseongIndex;
+import site.hackery.wonseok.util.HangulNormalizer;
+
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.text.Normalizer;
+
+public class HangulNormalizerTest {
+    private static final String ALL_SYLLABLES;
+
+    static {
+        StringBuilder syllables = new StringBuilder();
+        for (char c = 0xAC00; c <= 0xD7A3; c++) {
+            syllables.append(c);
+        }
+        ALL_SYLLABLES = syllables.toString();
+    }
+
+    @Test
+    public void matchesJavaNormalizer() {
+        String text = ALL_SYLLABLES + " mixed 텍스트, ㄱㅏ!";
+        String nfd = Normalizer.normalize(text, Normalizer.Form.NFD);
+
+        char[] decomposed = new char[text.length() * 3];
+        int length = HangulNormalizer.decompose(text.toCharArray(), 0, text.length(), decomposed, 0);
+        Assert.assertEquals(nfd, new String(decomposed, 0, length));
+
+        length = HangulNormalizer.compose(decomposed, 0, length);
+        Assert.assertEquals(text, new String(decomposed, 0, length));
+    }
+
+    @Test
+    public void composesMixedText() {
+        // '한' spelled out in conjoining 자모, then '그' as a syllable followed by a conjoining 'ᆯ'.
+        char[] text = "\u1112\u1161\u11AB\uADF8\u11AF".toCharArray();
+        int length = HangulNormalizer.compose(text, 0, text.length);
+
+        Assert.assertEquals("한글", new String(text, 0, length));
+    }
+
+    @Test
+    public void compatibility() {
+        // '각' in conjoining 자모, then a lone initial ㄱ, final ㄱ and final ㄳ.
+        String text = "\u1100\u1161\u11A8 \u1100 \u11A8 \u11AA";
+
+        char[] chars = text.toCharArray();
+        HangulNormalizer.toCompatibility(chars, 0, chars.length);
+        Assert.assertEquals("ㄱㅏㄱ ㄱ ㄱ ㄳ", new String(chars));
+
+        // Composing first keeps the syllable together.
+        Assert.assertEquals("각 ㄱ ㄱ ㄳ", HangulNormalizer.normalize(text));
+
+        char[] conjoining = "ㄱㅏㄳ".toCharArray();
+        HangulNormalizer.toConjoining(conjoining, 0, conjoining.length);
+        Assert.assertEquals("갃", new String(conjoining));
+    }
+
+    @Test
+    public void buffers() {
+        CharBuffer in = CharBuffer.wrap("안녕!");
+        CharBuffer out = CharBuffer.allocate(16);
+
+        HangulNormalizer.decompose(in, out);
+        out.flip();
+        Assert.assertEquals(Normalizer.normalize("안녕!", Normalizer.Form.NFD), out.toString());
+
+        HangulNormalizer.compose(out);
+        Assert.assertEquals("안녕!", out.toString());
+
+        // A read-only buffer doesn't have an accessible array, so it takes the slow path.
+        CharBuffer small = CharBuffer.allocate(4);
+        try {
+            HangulNormalizer.decompose(CharBuffer.wrap("안녕").asReadOnlyBuffer(), small);
+            Assert.fail();
+        } catch (BufferOverflowException e) {
+            Assert.assertEquals(3, small.position());
+        }
+    }
+
+    @Test
+    public void choseongIndexComposesKeys() {
+        Assert.assertEquals("ㅎㄱ", ChoseongIndex.choseongKey(Normalizer.normalize("한글", Normalizer.Form.NFD)));
+    }
+}
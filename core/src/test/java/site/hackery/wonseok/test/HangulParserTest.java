@@ -30,6 +30,12 @@ public class HangulParserTest {
         Assert.assertEquals("말해", HangulParser.construct(new char[] { 'ㅁ', 'ㅏ', 'ㄹ', 'ㅎ', 'ㅐ' }));
     }
 
+    @Test
+    public void consonantJoin() {
+        Assert.assertEquals("않", HangulParser.construct(new char[] { 'ㅇ', 'ㅏ', 'ㄴ', 'ㅎ' }));
+        Assert.assertEquals("몫", HangulParser.construct(new char[] { 'ㅁ', 'ㅗ', 'ㄱ', 'ㅅ' }));
+    }
+
     @Test
     public void appendDeadVowel() {
         Assert.assertEquals("아ㅏ", HangulParser.construct(new char[] { 'ㅇ', 'ㅏ', 'ㅏ' }));
@@ -0,0 +1,194 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.HangulParser;
+import site.hackery.wonseok.util.keymap.KoreanKeymaps;
+import site.hackery.wonseok.util.stream.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.CoderResult;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+public class HangulTranscoderTest {
+    private static final String ALPHABET = "ㄱㄲㄳㄴㄵㄶㄷㄸㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅃㅄㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ 가a";
+
+    @Test
+    public void compose() {
+        Assert.assertEquals("안녕하세요, 말해 봐!", new ComposingTranscoder().transcode("ㅇㅏㄴㄴㅕㅇㅎㅏㅅㅔㅇㅛ, ㅁㅏㄹㅎㅐ ㅂㅘ!"));
+    }
+
+    @Test
+    public void decompose() {
+        Assert.assertEquals("ㅇㅏㄴㄴㅕㅇ, ㅂㅜㅔㄹㄱ!", new DecomposingTranscoder().transcode("안녕, 뷁!"));
+    }
+
+    @Test
+    public void keystrokes() {
+        Assert.assertEquals("안녕하세요, 말해 봐!",
+                new KeystrokeTranscoder(KoreanKeymaps.DUBEOLSIK).transcode("dkssudgktpdy, akfgo qhk!"));
+    }
+
+    @Test
+    public void normalize() {
+        // '한' and '그' spelled out in conjoining 자모, followed by a lone conjoining 'ᆯ' after a space.
+        Assert.assertEquals("한그 ㄹ", new NormalizingTranscoder().transcode("\u1112\u1161\u11AB\u1100\u1173 \u11AF"));
+    }
+
+    @Test
+    public void normalizeKeepsNul() {
+        Assert.assertEquals("\0한\0", new NormalizingTranscoder().transcode("\0\u1112\u1161\u11AB\0"));
+        Assert.assertEquals("\0\0", new NormalizingTranscoder().transcode("\0\0"));
+    }
+
+    @Test
+    public void composeMatchesConstructForEachRun() {
+        Random random = new Random(0);
+        ComposingTranscoder transcoder = new ComposingTranscoder();
+
+        for (int i = 0; i < 10000; i++) {
+            String text = randomText(random, random.nextInt(24));
+            Assert.assertEquals(text, constructRuns(text), transcoder.transcode(text));
+        }
+    }
+
+    @Test
+    public void carriesPendingJamoAcrossBuffers() {
+        String jamo = "ㅇㅏㄴㅎㅇㅏ ㅁㅏㄹㅎㅐ ㅇㅜㅇㅗㅏ";
+        ComposingTranscoder transcoder = new ComposingTranscoder();
+
+        CharBuffer out = CharBuffer.allocate(64);
+        for (int i = 0; i < jamo.length(); i++) {
+            CharBuffer in = CharBuffer.wrap(jamo, i, i + 1);
+            Assert.assertEquals(CoderResult.UNDERFLOW, transcoder.transcode(in, out, false));
+        }
+
+        Assert.assertEquals(CoderResult.UNDERFLOW, transcoder.transcode(CharBuffer.allocate(0), out, true));
+
+        out.flip();
+        Assert.assertEquals("않아 말해 우와", out.toString());
+    }
+
+    @Test
+    public void overflow() {
+        DecomposingTranscoder transcoder = new DecomposingTranscoder();
+        CharBuffer in = CharBuffer.wrap("뷁뷁");
+        CharBuffer out = CharBuffer.allocate(3);
+
+        Assert.assertEquals(CoderResult.OVERFLOW, transcoder.transcode(in, out, true));
+        out.flip();
+        Assert.assertEquals("ㅂㅜㅔ", out.toString());
+
+        out.clear();
+        Assert.assertEquals(CoderResult.OVERFLOW, transcoder.transcode(in, out, true));
+        out.flip();
+        Assert.assertEquals("ㄹㄱㅂ", out.toString());
+    }
+
+    @Test
+    public void readerAndWriter() throws IOException {
+        Random random = new Random(1);
+        String text = randomText(random, 100000);
+
+        StringBuilder read = new StringBuilder();
+        try (TranscodingReader reader = new TranscodingReader(new StringReader(text), new ComposingTranscoder(), 7)) {
+            char[] buffer = new char[13];
+            int length;
+
+            while ((length = reader.read(buffer)) != -1) {
+                read.append(buffer, 0, length);
+            }
+        }
+
+        StringWriter written = new StringWriter();
+        try (Writer writer = new TranscodingWriter(written, new ComposingTranscoder(), 5)) {
+            for (int i = 0; i < text.length(); i += 11) {
+                writer.write(text, i, Math.min(11, text.length() - i));
+            }
+        }
+
+        String expected = constructRuns(text);
+        Assert.assertEquals(expected, read.toString());
+        Assert.assertEquals(expected, written.toString());
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        Random random = new Random(2);
+        StringBuilder text = new StringBuilder(randomText(random, 50000));
+
+        // A long run of 자모 with nowhere safe to split.
+        for (int i = 0; i < 3000; i++) {
+            text.insert(20000, "ㄱㅏ");
+        }
+
+        assertParallelMatches(ComposingTranscoder::new, text);
+        assertParallelMatches(DecomposingTranscoder::new, text);
+    }
+
+    @Test
+    public void parallelMatchesSequentialForEachTranscoder() {
+        // Latin letters, punctuation, and both kinds of 자모, so that chunks start in the middle of every kind of input.
+        String alphabet = "abcdefghijklmnopqrstuvwxyzAEOUR   -',.ㄱㅏ가\u1100\u1161\u11A8\u1169\u11AF";
+
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            StringBuilder text = new StringBuilder();
+
+            for (int i = 0; i < 5000; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            assertParallelMatches(ComposingTranscoder::new, text);
+            assertParallelMatches(DecomposingTranscoder::new, text);
+            assertParallelMatches(NormalizingTranscoder::new, text);
+            assertParallelMatches(RomajaTranscoder::new, text);
+            assertParallelMatches(() -> new KeystrokeTranscoder(KoreanKeymaps.DUBEOLSIK), text);
+            assertParallelMatches(() -> new KeystrokeTranscoder(KoreanKeymaps.SEBEOLSIK_390), text);
+            assertParallelMatches(() -> new KeystrokeTranscoder(KoreanKeymaps.SEBEOLSIK_FINAL), text);
+        }
+    }
+
+    private static void assertParallelMatches(Supplier<? extends HangulTranscoder> transcoders, CharSequence text) {
+        String expected = transcoders.get().transcode(text);
+
+        for (int chunkSize : new int[] { 1, 7, 97 }) {
+            ParallelTranscoder parallel = new ParallelTranscoder(transcoders, ForkJoinPool.commonPool(), chunkSize);
+            Assert.assertEquals(transcoders.get().getClass().getSimpleName(), expected, parallel.transcode(text));
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        char[] text = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            text[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+
+        return new String(text);
+    }
+
+    private static String constructRuns(String text) {
+        StringBuilder builder = new StringBuilder();
+        int runStart = 0;
+
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || !HangulParser.withinHangulJamo(text.charAt(i))) {
+                builder.append(HangulParser.construct(text.substring(runStart, i).toCharArray()));
+
+                if (i < text.length())
+                    builder.append(text.charAt(i));
+
+                runStart = i + 1;
+            }
+        }
+
+        return builder.toString();
+    }
+}
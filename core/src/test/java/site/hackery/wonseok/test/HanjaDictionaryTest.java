@@ -0,0 +1,134 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.hanja.HanjaCompiler;
+import site.hackery.wonseok.util.hanja.HanjaDictionary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class HanjaDictionaryTest {
+    private static final String DICTIONARY = "src/main/dictionaries/hanja.txt";
+
+    private static byte[] compile(String text) throws IOException {
+        SortedMap<String, List<String>> entries = new TreeMap<>();
+        HanjaCompiler.parse("test", new StringReader(text), entries);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HanjaCompiler.write(entries, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void lookup() throws IOException {
+        HanjaDictionary dictionary = new HanjaDictionary(ByteBuffer.wrap(compile(
+                "한 韓 漢 # Comment\n\n한국 韓國\n가 家\n한 寒 韓\n")));
+
+        Assert.assertEquals(3, dictionary.size());
+        // Readings listed twice have their candidates joined, without duplicates.
+        Assert.assertArrayEquals(new String[]{"韓", "漢", "寒"}, dictionary.lookup("한"));
+        Assert.assertArrayEquals(new String[]{"韓國"}, dictionary.lookup("한국"));
+        Assert.assertArrayEquals(new String[]{"家"}, dictionary.lookup("가"));
+
+        Assert.assertEquals(0, dictionary.lookup("국").length);
+        Assert.assertEquals(0, dictionary.lookup("한국어").length);
+        Assert.assertEquals(0, dictionary.lookup("").length);
+    }
+
+    @Test
+    public void lookupWithinText() throws IOException {
+        HanjaDictionary dictionary = new HanjaDictionary(ByteBuffer.wrap(compile("한국 韓國\n국 國\n")));
+
+        Assert.assertArrayEquals(new String[]{"韓國"}, dictionary.lookup("저는 한국 사람", 3, 5));
+        Assert.assertArrayEquals(new String[]{"國"}, dictionary.lookup("저는 한국 사람", 4, 5));
+        Assert.assertTrue(dictionary.contains("대한국", 1, 3));
+        Assert.assertFalse(dictionary.contains("대한국", 0, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonHangulReadings() throws IOException {
+        compile("han 韓\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsReadingsWithoutCandidates() throws IOException {
+        compile("한\n");
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedTables() throws IOException {
+        byte[] table = compile("한 韓\n");
+        new HanjaDictionary(ByteBuffer.wrap(table, 0, table.length - 2).slice());
+    }
+
+    @Test
+    public void bundledDictionary() throws IOException {
+        SortedMap<String, List<String>> entries = new TreeMap<>();
+
+        try (Reader reader = new InputStreamReader(Files.newInputStream(Paths.get(DICTIONARY)), StandardCharsets.UTF_8)) {
+            HanjaCompiler.parse(DICTIONARY, reader, entries);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HanjaCompiler.write(entries, out);
+
+        // Mapped from a file, the way the game loads it. Some platforms can't delete a file while it's mapped.
+        Path file = Files.createTempFile("hanja", ".bin");
+        file.toFile().deleteOnExit();
+        Files.write(file, out.toByteArray());
+
+        HanjaDictionary dictionary = HanjaDictionary.open(file);
+
+        Assert.assertEquals(entries.size(), dictionary.size());
+        for (Map.Entry<String, List<String>> entry : entries.entrySet()) {
+            Assert.assertEquals(entry.getValue(), Arrays.asList(dictionary.lookup(entry.getKey())));
+        }
+
+        Assert.assertEquals("大韓民國", dictionary.lookup("대한민국")[0]);
+        Assert.assertEquals("韓", dictionary.lookup("한")[0]);
+    }
+
+    @Test
+    public void replacesCorruptCopy() throws IOException {
+        Path directory = Files.createTempDirectory("wonseok");
+        Path file = directory.resolve("hanja.bin");
+        directory.toFile().deleteOnExit();
+        file.toFile().deleteOnExit();
+
+        byte[] table;
+        try (InputStream stream = HanjaDictionary.class.getResourceAsStream(HanjaDictionary.RESOURCE)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+
+            table = out.toByteArray();
+        }
+
+        // The start of the copy, as if the disk filled up while it was written.
+        Files.write(file, Arrays.copyOf(table, table.length / 2));
+
+        HanjaDictionary dictionary = HanjaDictionary.load(file);
+
+        Assert.assertEquals("韓", dictionary.lookup("한")[0]);
+        Assert.assertArrayEquals(table, Files.readAllBytes(file));
+    }
+}
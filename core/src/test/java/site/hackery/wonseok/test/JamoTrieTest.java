@@ -0,0 +1,75 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.JamoTrie;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class JamoTrieTest {
+    private final JamoTrie trie = new JamoTrie(
+            new String[]{"한국", "한글", "하늘", "했다", "학교", "하다", "가다"},
+            new int[]{50, 40, 30, 20, 10, 60, 5});
+
+    @Test
+    public void completesAtJamoLevel() {
+        JamoTrie.Cursor cursor = trie.newCursor();
+
+        // '하' is a prefix of '한' and '학', but not as a string. '했' has a different vowel.
+        Assert.assertTrue(cursor.advance('하'));
+        Assert.assertEquals(Arrays.asList("하다", "한국", "한글", "하늘", "학교"), cursor.complete(10));
+        Assert.assertEquals(Arrays.asList("하다", "한국"), cursor.complete(2));
+
+        Assert.assertTrue(cursor.advance('ㄴ'));
+        Assert.assertEquals(Arrays.asList("한국", "한글", "하늘"), cursor.complete(10));
+    }
+
+    @Test
+    public void backspace() {
+        JamoTrie.Cursor cursor = trie.newCursor();
+
+        cursor.advance("한");
+        Assert.assertFalse(cursor.advance('ㅋ'));
+        Assert.assertFalse(cursor.advance('ㅋ'));
+        Assert.assertEquals(Collections.emptyList(), cursor.complete(10));
+
+        cursor.backspace();
+        cursor.backspace();
+        // '하늘' starts with 'ㅎㅏㄴ' too.
+        Assert.assertEquals(Arrays.asList("한국", "한글", "하늘"), cursor.complete(10));
+
+        cursor.backspace();
+        Assert.assertEquals(Arrays.asList("하다", "한국", "한글", "하늘", "학교"), cursor.complete(10));
+
+        cursor.reset();
+        Assert.assertEquals(7, cursor.complete(10).size());
+    }
+
+    @Test
+    public void wholeWords() {
+        JamoTrie.Cursor cursor = trie.newCursor();
+
+        cursor.advance("하");
+        Assert.assertFalse(cursor.isWord());
+        cursor.advance("다");
+        Assert.assertTrue(cursor.isWord());
+    }
+
+    @Test
+    public void load() throws IOException {
+        JamoTrie loaded = JamoTrie.load(new StringReader("# Words\n안녕 3\n\n안녕하세요 7 # Greeting\n아니 1\n"));
+        JamoTrie.Cursor cursor = loaded.newCursor();
+
+        Assert.assertEquals(3, loaded.size());
+        cursor.advance("안");
+        Assert.assertEquals(Arrays.asList("안녕하세요", "안녕", "아니"), cursor.complete(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedWordList() throws IOException {
+        JamoTrie.load(new StringReader("안녕\n"));
+    }
+}
@@ -0,0 +1,135 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.JamoComposer;
+import site.hackery.wonseok.util.keymap.Keymap;
+import site.hackery.wonseok.util.keymap.LayoutCompiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class KeymapTest {
+    private static final File LAYOUTS = new File("src/main/layouts");
+
+    @Test
+    public void compiledTableRoundTrip() throws IOException {
+        List<Keymap> keymaps = new ArrayList<>();
+        for (String id : new String[] { "dubeolsik", "sebeolsik-390", "sebeolsik-final" }) {
+            keymaps.add(load(id));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LayoutCompiler.write(keymaps, out);
+        List<Keymap> read = LayoutCompiler.read(out.toByteArray());
+
+        Assert.assertEquals(keymaps.size(), read.size());
+        for (int i = 0; i < keymaps.size(); i++) {
+            Keymap expected = keymaps.get(i);
+            Keymap actual = read.get(i);
+
+            Assert.assertEquals(expected.getId(), actual.getId());
+            Assert.assertEquals(expected.getName(), actual.getName());
+            Assert.assertEquals(expected.getType(), actual.getType());
+
+            for (char c = 0; c < 128; c++) {
+                Assert.assertEquals(expected.getInput(c), actual.getInput(c));
+            }
+        }
+    }
+
+    @Test
+    public void dubeolsik() throws IOException {
+        Keymap keymap = load("dubeolsik");
+
+        Assert.assertEquals('ㅂ', keymap.getInput('q'));
+        Assert.assertEquals('ㅃ', keymap.getInput('Q'));
+        Assert.assertEquals('ㅏ', keymap.getInput('K'));
+        Assert.assertEquals(0, keymap.getInput('1'));
+        Assert.assertEquals('ㅂ', keymap.getKey(16).getInput());
+
+        // With Caps Lock on, the case of a keystroke is the opposite of the shift state.
+        Assert.assertEquals('ㄱ', keymap.getInput('R', false));
+        Assert.assertEquals('ㄲ', keymap.getInput('r', true));
+        Assert.assertEquals('ㄲ', keymap.getInput('R', true));
+        Assert.assertEquals("안녕하세요", type(keymap, "dkssudgktpdy"));
+    }
+
+    @Test
+    public void sebeolsik390() throws IOException {
+        Keymap keymap = load("sebeolsik-390");
+
+        Assert.assertEquals("안녕하세요", type(keymap, "jfsheamfncj4"));
+        Assert.assertEquals("값이", type(keymap, "kfXjd"));
+        // Shift on the right hand types digits.
+        Assert.assertEquals("10", type(keymap, "MN"));
+    }
+
+    @Test
+    public void positionalConsonants() throws IOException {
+        Keymap keymap = load("sebeolsik-390");
+
+        // A final consonant stays where it is, rather than moving over to the next syllable.
+        Assert.assertEquals("각ㅏ", type(keymap, "kfxf"));
+        Assert.assertEquals("까", type(keymap, "kkf"));
+        Assert.assertEquals("와", type(keymap, "jvf"));
+        Assert.assertEquals("갉", type(keymap, "kfwx"));
+        Assert.assertEquals("ㄱ", type(keymap, "x"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unpositionedConsonant() throws IOException {
+        LayoutCompiler.parse("test", new StringReader("type sebeolsik\nk ㄱ\n"));
+    }
+
+    private static Keymap load(String id) throws IOException {
+        File file = new File(LAYOUTS, id + ".layout");
+
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8)) {
+            return LayoutCompiler.parse(id, reader);
+        }
+    }
+
+    private static String type(Keymap keymap, String keys) {
+        JamoComposer composer = keymap.newComposer();
+        StringBuilder text = new StringBuilder();
+
+        for (char c : keys.toCharArray()) {
+            char input = keymap.getInput(c);
+
+            if (composer.canCompose(input)) {
+                char committed = composer.compose(input);
+                if (committed != 0) {
+                    text.append(committed);
+                }
+            } else {
+                char committed = composer.commit();
+                if (committed != 0) {
+                    text.append(committed);
+                }
+                text.append(input);
+            }
+        }
+
+        char committed = composer.commit();
+        if (committed != 0) {
+            text.append(committed);
+        }
+
+        return text.toString();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void jamoAsKey() {
+        // 자모 where the keys go, for KEY_Q.
+        new Keymap("test", "Test", Keymap.Type.DUBEOLSIK).register(16, 'ㅂ', 'ㅃ', 'ㅂ', 'ㅃ');
+    }
+}
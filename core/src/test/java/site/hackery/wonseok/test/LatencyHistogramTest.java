@@ -0,0 +1,65 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.stats.LatencyHistogram;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LatencyHistogramTest {
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100); // [64, 128)
+        }
+        histogram.record(5000); // [4096, 8192)
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(127, histogram.getPercentileNanos(50));
+        Assert.assertEquals(127, histogram.getPercentileNanos(99));
+        Assert.assertEquals(5000, histogram.getPercentileNanos(100));
+        Assert.assertEquals(5000, histogram.getMaxNanos());
+        Assert.assertEquals((99 * 100 + 5000) / 100, histogram.getMeanNanos());
+    }
+
+    @Test
+    public void empty() throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+
+        Assert.assertEquals(0, histogram.getPercentileNanos(99));
+        Assert.assertEquals(0, histogram.getMeanNanos());
+
+        StringBuilder out = new StringBuilder();
+        histogram.dump(out);
+        Assert.assertTrue(out.toString().startsWith("test: count=0"));
+    }
+
+    @Test
+    public void concurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i + offset);
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(40000, histogram.getCount());
+        Assert.assertEquals(9999 + 3, histogram.getMaxNanos());
+    }
+}
@@ -0,0 +1,60 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.ngram.LayoutDetector;
+
+public class LayoutDetectorTest {
+    private static LayoutDetector feed(LayoutDetector detector, String keys) {
+        detector.reset();
+
+        for (int i = 0; i < keys.length(); i++) {
+            Assert.assertTrue(detector.feed(keys.charAt(i)));
+        }
+
+        return detector;
+    }
+
+    @Test
+    public void hangul() {
+        LayoutDetector detector = new LayoutDetector();
+
+        // 안녕, 한글, 사랑, 감사합니다, 저는, 이것은, 장어, 크리퍼, 진짜
+        for (String keys : new String[] { "dkssud", "gksrmf", "tkfkd", "rkatkgkqslek", "wjsms", "dlrjtdms", "wkddj", "zmflvj", "wlsWk" }) {
+            Assert.assertTrue(keys, feed(detector, keys).looksLikeHangul());
+            Assert.assertFalse(keys, detector.looksLikeLatin());
+        }
+    }
+
+    @Test
+    public void latin() {
+        LayoutDetector detector = new LayoutDetector();
+
+        for (String keys : new String[] { "hello", "minecraft", "world", "server", "please", "zombie", "keyboard", "village", "Steve" }) {
+            Assert.assertTrue(keys, feed(detector, keys).looksLikeLatin());
+            Assert.assertFalse(keys, detector.looksLikeHangul());
+        }
+    }
+
+    @Test
+    public void ambiguous() {
+        LayoutDetector detector = new LayoutDetector();
+
+        // Too short to tell, or unlikely in either language.
+        for (String keys : new String[] { "gg", "ok", "hi", "asdf", "qwerty", "idk" }) {
+            feed(detector, keys);
+            Assert.assertFalse(keys, detector.looksLikeHangul());
+            Assert.assertFalse(keys, detector.looksLikeLatin());
+        }
+    }
+
+    @Test
+    public void nonLetters() {
+        LayoutDetector detector = new LayoutDetector();
+
+        Assert.assertFalse(detector.feed(' '));
+        Assert.assertFalse(detector.feed('1'));
+        Assert.assertFalse(detector.feed('가'));
+        Assert.assertEquals(0, detector.length());
+    }
+}
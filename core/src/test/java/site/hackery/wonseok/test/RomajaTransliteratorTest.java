@@ -0,0 +1,81 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.util.RomajaTransliterator;
+import site.hackery.wonseok.util.stream.RomajaTranscoder;
+
+public class RomajaTransliteratorTest {
+    @Test
+    public void hello() {
+        Assert.assertEquals("안녕하세요", RomajaTransliterator.transliterate("annyeonghaseyo"));
+    }
+
+    @Test
+    public void finalConsonantShift() {
+        Assert.assertEquals("사람", RomajaTransliterator.transliterate("saram"));
+        Assert.assertEquals("몰라요", RomajaTransliterator.transliterate("mollayo"));
+    }
+
+    @Test
+    public void positionalConsonants() {
+        // 'k' is 'ㄱ' at the end of a syllable, but 'ㅋ' at the start of one.
+        Assert.assertEquals("학교", RomajaTransliterator.transliterate("hakgyo"));
+        Assert.assertEquals("코", RomajaTransliterator.transliterate("ko"));
+
+        // 'ng' before a vowel is split across the syllable boundary.
+        Assert.assertEquals("한글", RomajaTransliterator.transliterate("hangeul"));
+        Assert.assertEquals("정말", RomajaTransliterator.transliterate("jeongmal"));
+    }
+
+    @Test
+    public void syllableBreak() {
+        Assert.assertEquals("연거", RomajaTransliterator.transliterate("yeongeo"));
+        Assert.assertEquals("영어", RomajaTransliterator.transliterate("yeong-eo"));
+        Assert.assertEquals("서울", RomajaTransliterator.transliterate("seo'ul"));
+    }
+
+    @Test
+    public void passesThroughBreaksOutsideWords() {
+        Assert.assertEquals("- 우리 '나라", RomajaTransliterator.transliterate("- uri 'nara"));
+        Assert.assertEquals("1-2", RomajaTransliterator.transliterate("1-2"));
+        // Only the first of two breaks is taken by the word.
+        Assert.assertEquals("한-", RomajaTransliterator.transliterate("han--"));
+    }
+
+    @Test
+    public void informalSpellings() {
+        Assert.assertEquals("주세요", RomajaTransliterator.transliterate("jooseyo"));
+        Assert.assertEquals("외국", RomajaTransliterator.transliterate("oiguk"));
+    }
+
+    @Test
+    public void passesThroughOtherCharacters() {
+        Assert.assertEquals("우리 나라! x", RomajaTransliterator.transliterate("uri nara! x"));
+    }
+
+    @Test
+    public void preedit() {
+        RomajaTransliterator transliterator = new RomajaTransliterator();
+        char[] buffer = new char[RomajaTransliterator.MAX_OUTPUT];
+
+        for (char c : "han".toCharArray()) {
+            Assert.assertEquals(0, transliterator.feed(c, buffer, 0));
+        }
+
+        Assert.assertEquals("한", new String(buffer, 0, transliterator.getPreedit(buffer, 0)));
+
+        // Typing a vowel moves the 'n' over to the next syllable...
+        Assert.assertEquals(0, transliterator.feed('a', buffer, 0));
+        Assert.assertEquals("하나", new String(buffer, 0, transliterator.getPreedit(buffer, 0)));
+
+        // ...but '하' is only committed once we know the 'a' isn't the start of 'ae'.
+        Assert.assertEquals("하", new String(buffer, 0, transliterator.feed('n', buffer, 0)));
+        Assert.assertEquals("난", new String(buffer, 0, transliterator.getPreedit(buffer, 0)));
+    }
+
+    @Test
+    public void transcoder() {
+        Assert.assertEquals("김치, 주세요.", new RomajaTranscoder().transcode("gimchi, juseyo."));
+    }
+}
@@ -0,0 +1,56 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import site.hackery.wonseok.cli.WonseokCli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class WonseokCliTest {
+    @Test
+    public void keys() throws IOException {
+        Assert.assertEquals("안녕하세요, 세상!\n", run("dkssudgktpdy, tptkd!\n", "keys", "dubeolsik"));
+    }
+
+    @Test
+    public void largeFile() throws IOException {
+        // Much larger than the character and byte buffers, with multi-byte characters landing across their boundaries.
+        // Crossing map windows is covered by TranscodingPipeTest, with a smaller window.
+        StringBuilder text = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            text.append("ㅁㅏㄹㅎㅐ a ");
+            expected.append("말해 a ");
+        }
+
+        Assert.assertEquals(expected.toString(), run(text.toString(), "compose"));
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        Assert.assertEquals("", run("", "decompose"));
+    }
+
+    private static String run(String input, String... command) throws IOException {
+        Path in = Files.createTempFile("wonseok", ".txt");
+        Path out = Files.createTempFile("wonseok", ".txt");
+
+        try {
+            Files.write(in, input.getBytes(StandardCharsets.UTF_8));
+
+            String[] args = new String[command.length + 2];
+            System.arraycopy(command, 0, args, 0, command.length);
+            args[command.length] = in.toString();
+            args[command.length + 1] = out.toString();
+            WonseokCli.main(args);
+
+            return new String(Files.readAllBytes(out), StandardCharsets.UTF_8);
+        } finally {
+            Files.delete(in);
+            Files.delete(out);
+        }
+    }
+}
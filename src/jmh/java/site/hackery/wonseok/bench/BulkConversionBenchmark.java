@@ -0,0 +1,149 @@
+package site.hackery.wonseok.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.hackery.wonseok.util.HangulNormalizer;
+import site.hackery.wonseok.util.HangulParser;
+import site.hackery.wonseok.util.stream.ComposingTranscoder;
+import site.hackery.wonseok.util.stream.DecomposingTranscoder;
+import site.hackery.wonseok.util.stream.HangulTranscoder;
+import site.hackery.wonseok.util.stream.ParallelTranscoder;
+import site.hackery.wonseok.util.stream.RomajaTranscoder;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a realistic Korean corpus between syllables and 자모 in bulk, as our log processing does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkConversionBenchmark {
+    @Param({ "4096", "1048576" })
+    private int length;
+
+    private String text;
+    private char[] jamo;
+    private char[] output;
+
+    private char[] syllables;
+    private char[] nfd;
+    private char[] nfdScratch;
+    private String nfdText;
+    private String romaja;
+
+    private final ComposingTranscoder composer = new ComposingTranscoder();
+    private final DecomposingTranscoder decomposer = new DecomposingTranscoder();
+    private final CharBuffer window = CharBuffer.allocate(8192);
+
+    private final RomajaTranscoder romajaTranscoder = new RomajaTranscoder();
+    private final ParallelTranscoder parallelComposer = new ParallelTranscoder(ComposingTranscoder::new);
+
+    @Setup
+    public void setup() throws IOException {
+        text = Corpus.load(length).substring(0, length);
+        jamo = Corpus.toJamo(text);
+        output = new char[jamo.length];
+
+        syllables = text.toCharArray();
+        nfd = new char[text.length() * 3];
+        nfd = Arrays.copyOf(nfd, HangulNormalizer.decompose(syllables, 0, syllables.length, nfd, 0));
+        nfdScratch = new char[nfd.length];
+        nfdText = new String(nfd);
+
+        StringBuilder romaja = new StringBuilder();
+        while (romaja.length() < length) {
+            romaja.append("annyeonghaseyo! oneul nalssiga jeongmal joneyo. hakgyo-e gayo? ");
+        }
+
+        this.romaja = romaja.substring(0, length);
+    }
+
+    @Benchmark
+    public String construct() {
+        return HangulParser.construct(jamo);
+    }
+
+    @Benchmark
+    public int constructIntoBuffer() {
+        return HangulParser.construct(jamo, 0, jamo.length, output, 0);
+    }
+
+    @Benchmark
+    public int deconstructIntoBuffer() {
+        int position = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int written = HangulParser.deconstruct(c, output, position);
+
+            if (written == 0) {
+                output[position++] = c;
+            } else {
+                position += written;
+            }
+        }
+
+        return position;
+    }
+
+    @Benchmark
+    public int composeStreaming() {
+        return stream(composer, CharBuffer.wrap(jamo));
+    }
+
+    @Benchmark
+    public int decomposeStreaming() {
+        return stream(decomposer, CharBuffer.wrap(text));
+    }
+
+    @Benchmark
+    public int transliterateRomajaStreaming() {
+        return stream(romajaTranscoder, CharBuffer.wrap(romaja));
+    }
+
+    @Benchmark
+    public String composeParallel() {
+        return parallelComposer.transcode(CharBuffer.wrap(jamo));
+    }
+
+    @Benchmark
+    public int decomposeNfd() {
+        return HangulNormalizer.decompose(syllables, 0, syllables.length, nfdScratch, 0);
+    }
+
+    @Benchmark
+    public int composeNfc() {
+        // Composing works in place, so start each time from a fresh copy of the decomposed text.
+        System.arraycopy(nfd, 0, nfdScratch, 0, nfd.length);
+        return HangulNormalizer.compose(nfdScratch, 0, nfdScratch.length);
+    }
+
+    /**
+     * What composeNfc replaces.
+     */
+    @Benchmark
+    public String composeNfcWithJavaNormalizer() {
+        return Normalizer.normalize(nfdText, Normalizer.Form.NFC);
+    }
+
+    private int stream(HangulTranscoder transcoder, CharBuffer in) {
+        int written = 0;
+        transcoder.reset();
+
+        while (transcoder.transcode(in, window, true).isOverflow()) {
+            written += window.position();
+            window.clear();
+        }
+
+        written += window.position();
+        window.clear();
+        return written;
+    }
+}
@@ -0,0 +1,83 @@
+package site.hackery.wonseok.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.hackery.wonseok.util.ChoseongIndex;
+import site.hackery.wonseok.util.HangulParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChoseongIndexBenchmark {
+    @Param({"1000", "50000"})
+    private int entries;
+
+    private List<String> texts;
+    private ChoseongIndex index;
+
+    private final String query = "ㅎㄱ";
+
+    @Setup
+    public void setup() throws IOException {
+        String[] words = Corpus.load(0).split("\\s+");
+        Set<String> unique = new LinkedHashSet<>();
+
+        // Pairs of words stand in for item and player names, and make sure there are enough distinct entries.
+        for (int i = 0; unique.size() < entries; i++) {
+            unique.add(words[i % words.length] + " " + words[(i * 31 + 7) % words.length] + (i / words.length));
+        }
+
+        texts = new ArrayList<>(unique);
+        index = new ChoseongIndex();
+        index.addAll(texts);
+    }
+
+    @Benchmark
+    public List<String> findByPrefix() {
+        return index.findByPrefix(query);
+    }
+
+    @Benchmark
+    public List<String> findBySubstring() {
+        return index.findBySubstring(query);
+    }
+
+    /**
+     * What the index replaces: deconstructing every candidate on every query.
+     */
+    @Benchmark
+    public List<String> linearScan() {
+        List<String> results = new ArrayList<>();
+
+        for (String text : texts) {
+            StringBuilder initials = new StringBuilder(text.length());
+
+            for (int i = 0; i < text.length(); i++) {
+                char[] jamo = HangulParser.deconstructNonAtomic(text.charAt(i));
+                initials.append(jamo.length == 0 ? text.charAt(i) : jamo[0]);
+            }
+
+            if (initials.indexOf(query) >= 0) {
+                results.add(text);
+            }
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    public ChoseongIndex build() {
+        ChoseongIndex index = new ChoseongIndex();
+        index.addAll(texts);
+        return index;
+    }
+}
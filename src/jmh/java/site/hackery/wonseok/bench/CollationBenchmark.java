@@ -0,0 +1,61 @@
+package site.hackery.wonseok.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.hackery.wonseok.util.HangulCollator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollationBenchmark {
+    @Param({"1000", "100000"})
+    private int names;
+
+    private String[] unsorted;
+    private final HangulCollator collator = new HangulCollator();
+
+    @Setup
+    public void setup() throws IOException {
+        String[] words = Corpus.load(0).split("\\s+");
+        Set<String> unique = new LinkedHashSet<>();
+
+        // Pairs of words stand in for item and player names, and make sure there are enough distinct names.
+        for (int i = 0; unique.size() < names; i++) {
+            unique.add(words[i % words.length] + " " + words[(i * 31 + 7) % words.length] + (i / words.length));
+        }
+
+        unsorted = unique.toArray(new String[unique.size()]);
+    }
+
+    @Benchmark
+    public String[] sortWithKeys() {
+        String[] array = unsorted.clone();
+        collator.sort(array);
+        return array;
+    }
+
+    /**
+     * What the keys replace: breaking both strings down on every comparison.
+     */
+    @Benchmark
+    public String[] sortWithComparator() {
+        String[] array = unsorted.clone();
+        Arrays.sort(array, collator);
+        return array;
+    }
+
+    @Benchmark
+    public String[] sortByCodeUnits() {
+        String[] array = unsorted.clone();
+        Arrays.sort(array);
+        return array;
+    }
+}
@@ -0,0 +1,57 @@
+package site.hackery.wonseok.bench;
+
+import site.hackery.wonseok.util.HangulParser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+final class Corpus {
+    private Corpus() {
+    }
+
+    /**
+     * Loads the benchmark corpus, repeating it until it is at least <code>minimumLength</code> characters long.
+     */
+    static String load(int minimumLength) throws IOException {
+        StringBuilder corpus = new StringBuilder();
+
+        try (Reader reader = new InputStreamReader(Corpus.class.getResourceAsStream("/corpus.txt"), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[4096];
+            int read;
+
+            while ((read = reader.read(buffer)) != -1) {
+                corpus.append(buffer, 0, read);
+            }
+        }
+
+        String text = corpus.toString();
+        while (corpus.length() < minimumLength) {
+            corpus.append(text);
+        }
+
+        return corpus.toString();
+    }
+
+    /**
+     * Atomically deconstructs every syllable in <code>text</code>, leaving everything else as-is.
+     */
+    static char[] toJamo(String text) {
+        char[] jamo = new char[text.length() * HangulParser.MAX_ATOMIC_JAMO];
+        int length = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int written = HangulParser.deconstruct(c, jamo, length);
+
+            if (written == 0) {
+                jamo[length++] = c;
+            } else {
+                length += written;
+            }
+        }
+
+        char[] trimmed = new char[length];
+        System.arraycopy(jamo, 0, trimmed, 0, length);
+        return trimmed;
+    }
+}
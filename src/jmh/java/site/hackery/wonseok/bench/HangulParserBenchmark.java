@@ -0,0 +1,79 @@
+package site.hackery.wonseok.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import site.hackery.wonseok.util.HangulParser;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HangulParserBenchmark {
+    private final char[] hello = "ㅇㅏㄴㄴㅕㅇㅎㅏㅅㅔㅇㅛ".toCharArray();
+
+    // Consonant clusters and compound vowels, which send construct through every branch of the joiner.
+    private final char[] clusters = "ㅁㅏㄹㅎㅐㅇㅣㄹㄱㄱㄷㅏㄹㄱㅇㅏㄴㅎㅇㅏㅇㅜㅇㅗㅏㅂㅏㄹㅂㄱㅗㅏㄴ".toCharArray();
+
+    private final char[] syllables = "안녕하세요말해읽닭않와뷁값".toCharArray();
+    private final char[] output = new char[64];
+
+    @Benchmark
+    public String construct() {
+        return HangulParser.construct(hello);
+    }
+
+    @Benchmark
+    public int constructIntoBuffer() {
+        return HangulParser.construct(hello, 0, hello.length, output, 0);
+    }
+
+    @Benchmark
+    public String constructClusters() {
+        return HangulParser.construct(clusters);
+    }
+
+    @Benchmark
+    public int constructClustersIntoBuffer() {
+        return HangulParser.construct(clusters, 0, clusters.length, output, 0);
+    }
+
+    @Benchmark
+    public void deconstruct(Blackhole blackhole) {
+        for (char syllable : syllables) {
+            blackhole.consume(HangulParser.deconstruct(syllable));
+        }
+    }
+
+    @Benchmark
+    public int deconstructIntoBuffer() {
+        int length = 0;
+
+        for (char syllable : syllables) {
+            length += HangulParser.deconstruct(syllable, output, length);
+        }
+
+        return length;
+    }
+
+    @Benchmark
+    public void deconstructNonAtomic(Blackhole blackhole) {
+        for (char syllable : syllables) {
+            blackhole.consume(HangulParser.deconstructNonAtomic(syllable));
+        }
+    }
+
+    @Benchmark
+    public int deconstructNonAtomicIntoBuffer() {
+        int length = 0;
+
+        for (char syllable : syllables) {
+            length += HangulParser.deconstructNonAtomic(syllable, output, length);
+        }
+
+        return length;
+    }
+}
@@ -0,0 +1,60 @@
+package site.hackery.wonseok.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.hackery.wonseok.util.hanja.HanjaDictionary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HanjaDictionaryBenchmark {
+    private Path file;
+    private HanjaDictionary dictionary;
+
+    private final String text = "저는 대한민국 사람입니다";
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("hanja", ".bin");
+        Files.delete(file);
+        dictionary = HanjaDictionary.load(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.toFile().deleteOnExit();
+    }
+
+    @Benchmark
+    public String[] lookupWord() {
+        return dictionary.lookup(text, 3, 7);
+    }
+
+    @Benchmark
+    public boolean lookupMiss() {
+        return dictionary.contains(text, 8, 13);
+    }
+
+    /**
+     * What the game does on Ctrl+Space: trying each suffix of the word before the cursor, longest first.
+     */
+    @Benchmark
+    public String[] longestSuffix() {
+        for (int start = 8; start < 13; start++) {
+            String[] candidates = dictionary.lookup(text, start, 13);
+
+            if (candidates.length > 0) {
+                return candidates;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package site.hackery.wonseok.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.hackery.wonseok.util.JamoTrie;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JamoTrieBenchmark {
+    private String[] words;
+    private int[] frequencies;
+
+    private JamoTrie trie;
+    private JamoTrie.Cursor cursor;
+
+    @Setup
+    public void setup() throws IOException {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : Corpus.load(0).split("\\s+")) {
+            counts.merge(word, 1, Integer::sum);
+        }
+
+        words = counts.keySet().toArray(new String[0]);
+        frequencies = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            frequencies[i] = counts.get(words[i]);
+        }
+
+        trie = new JamoTrie(words, frequencies);
+        cursor = trie.newCursor();
+    }
+
+    @Benchmark
+    public JamoTrie build() {
+        return new JamoTrie(words, frequencies);
+    }
+
+    /**
+     * Typing '하' a 자모 at a time, completing after each one like an autocomplete popup would.
+     */
+    @Benchmark
+    public List<String> typeAndComplete() {
+        cursor.reset();
+
+        cursor.advance('ㅎ');
+        cursor.complete(5);
+        cursor.advance('ㅏ');
+        return cursor.complete(5);
+    }
+}
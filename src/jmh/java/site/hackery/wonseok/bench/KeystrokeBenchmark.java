@@ -0,0 +1,87 @@
+package site.hackery.wonseok.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.hackery.wonseok.Wonseok;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Types dubeolsik keystrokes into a text field through {@link Wonseok#textInputHook}, the same way the patched
+ * <code>GuiTextField.textboxKeyTyped</code> does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeystrokeBenchmark {
+    // 안녕하세요,오늘,날씨가,좋네요,
+    // Words are separated by commas rather than spaces, since checking for Shift+Space polls LWJGL's keyboard,
+    // which can't be created headlessly.
+    private static final String KEYSTROKES = "dkssudgktpdy,dhsmf,skfTlrk,whgspdy,";
+    private static final int KEYSTROKE_COUNT = 35;
+
+    /**
+     * How much text is already in the field, to show how the cost of each keystroke scales with its length.
+     */
+    @Param({ "0", "256", "4096" })
+    private int existingLength;
+
+    private String[] keystrokes;
+    // Whether shift is held for the keystroke being typed, which stands in for the keyboard.
+    private boolean shifted;
+    private StubTextField textField;
+    private String existingText;
+
+    @Setup
+    public void setup() {
+        keystrokes = new String[KEYSTROKES.length()];
+        for (int i = 0; i < keystrokes.length; i++) {
+            keystrokes[i] = String.valueOf(KEYSTROKES.charAt(i));
+        }
+
+        StringBuilder existing = new StringBuilder();
+        while (existing.length() < existingLength) {
+            existing.append("가나다라마바사 ");
+        }
+
+        existingText = existing.substring(0, existingLength);
+        textField = new StubTextField();
+
+        Wonseok.setImeEnabled(true);
+        Wonseok.setShiftKeyDown(() -> shifted);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Wonseok.setImeEnabled(false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKE_COUNT)
+    public String typeSentence() {
+        textField.setText(existingText);
+
+        for (String keystroke : keystrokes) {
+            shifted = Character.isUpperCase(keystroke.charAt(0));
+            textField.writeText(Wonseok.textInputHook(keystroke, textField));
+            Wonseok.afterTextInputHook(textField);
+        }
+
+        return textField.getText();
+    }
+
+    /**
+     * The same keystrokes pasted in one go, which is composed in a single pass and written with a single update.
+     */
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKE_COUNT)
+    public String pasteSentence() {
+        textField.setText(existingText);
+        textField.writeText(Wonseok.textInputHook(KEYSTROKES, textField));
+        Wonseok.afterTextInputHook(textField);
+
+        return textField.getText();
+    }
+}
@@ -0,0 +1,44 @@
+package site.hackery.wonseok.bench;
+
+import org.openjdk.jmh.annotations.*;
+import site.hackery.wonseok.util.ngram.LayoutDetector;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutDetectorBenchmark {
+    private final LayoutDetector detector = new LayoutDetector();
+
+    private final String keys = "dkssudgktpdy";
+
+    /**
+     * What the game does on every keystroke of a word.
+     */
+    @Benchmark
+    public boolean feed() {
+        if (detector.length() == keys.length()) {
+            detector.reset();
+        }
+
+        return detector.feed(keys.charAt(detector.length()));
+    }
+
+    /**
+     * What the game does at the end of a word.
+     */
+    @Benchmark
+    public boolean wholeWord() {
+        detector.reset();
+
+        for (int i = 0; i < keys.length(); i++) {
+            detector.feed(keys.charAt(i));
+        }
+
+        return detector.looksLikeHangul() || detector.looksLikeLatin();
+    }
+}
@@ -0,0 +1,58 @@
+package site.hackery.wonseok.bench;
+
+import net.minecraft.client.gui.GuiTextField;
+
+/**
+ * A headless stand-in for {@link GuiTextField}, which otherwise needs a font renderer to move its cursor.
+ * It implements just the parts of the text field that Wonseok and the patched <code>textboxKeyTyped</code> use.
+ */
+class StubTextField extends GuiTextField {
+    private String text = "";
+    private int cursorPosition;
+    private int selectionEnd;
+
+    StubTextField() {
+        super(0, null, 0, 0, 0, 0);
+    }
+
+    @Override
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public void setText(String text) {
+        this.text = text;
+        setCursorPosition(text.length());
+    }
+
+    @Override
+    public int getCursorPosition() {
+        return cursorPosition;
+    }
+
+    @Override
+    public int getSelectionEnd() {
+        return selectionEnd;
+    }
+
+    @Override
+    public void setCursorPosition(int position) {
+        cursorPosition = Math.max(0, Math.min(position, text.length()));
+        setSelectionPos(cursorPosition);
+    }
+
+    @Override
+    public void setSelectionPos(int position) {
+        selectionEnd = Math.max(0, Math.min(position, text.length()));
+    }
+
+    @Override
+    public void writeText(String textToWrite) {
+        int start = Math.min(cursorPosition, selectionEnd);
+        int end = Math.max(cursorPosition, selectionEnd);
+
+        text = text.substring(0, start) + textToWrite + text.substring(end);
+        setCursorPosition(start + textToWrite.length());
+    }
+}
@@ -0,0 +1,309 @@
+package site.hackery.wonseok;
+
+import net.minecraft.client.gui.GuiTextField;
+import site.hackery.wonseok.patch.TextTarget;
+import site.hackery.wonseok.util.HangulParser;
+import site.hackery.wonseok.util.JamoComposer;
+import site.hackery.wonseok.util.RomajaTransliterator;
+import site.hackery.wonseok.util.hanja.HanjaDictionary;
+import site.hackery.wonseok.util.keymap.Keymap;
+
+/**
+ * The composition state of a single text input: what's being composed, and where its preedit is.
+ * <p>
+ * Whatever is still being composed (the preedit) is kept in the text, just before the cursor. We remember where that is
+ * so it can be replaced on the next keystroke, without touching or re-reading the rest of the text.
+ * <p>
+ * Sessions don't hold on to their target, which is either a GuiTextField, or a {@link TextTarget} which is always typed
+ * into at the end, so that they can be kept in a weak map keyed by the target.
+ */
+class CompositionSession {
+    private Keymap keymap;
+    private JamoComposer composer;
+    private RomajaTransliterator romaja;
+
+    private boolean composing;
+    private int preeditEnd;
+    private int preeditLength;
+    // The text last written, which ends with the preedit, to check that the preedit is still in the text.
+    private String written;
+
+    private char[] jamoOutput = new char[16];
+    private char[] romajaOutput;
+
+    // While a word is being converted to Hanja it's the preedit, and these are the candidates cycled through.
+    private String hanjaReading;
+    private String[] hanjaCandidates;
+    private int hanjaIndex;
+
+    private final LayoutCorrector layoutCorrector = new LayoutCorrector();
+
+    /**
+     * Composes typed text through a keymap. Usually that's a single keystroke, but a whole paste is composed in one
+     * pass, and written to the target in a single update.
+     *
+     * @param shifted Whether shift is held. This only matters for a single keystroke: pasted text isn't typed, so its
+     *                letters are taken as they are.
+     */
+    String handleInput(Object target, String textToWrite, Keymap keymap, boolean shifted) {
+        if (composer == null || this.keymap != keymap) {
+            this.keymap = keymap;
+            composer = keymap.newComposer();
+            end();
+        }
+
+        endHanja();
+
+        if (textToWrite.length() <= 1) {
+            char hangulInput = textToWrite.isEmpty() ? 0 : keymap.getInput(textToWrite.charAt(0), shifted);
+
+            if (hangulInput == 0 || !composer.canCompose(hangulInput)) {
+                Statistics.REJECTED.incrementAndGet();
+
+                // The preedit is already in the text, so it's committed simply by leaving it there.
+                end();
+
+                // Some layouts move punctuation and digits around, i.e. 세벌식 390 types digits with shift.
+                return hangulInput != 0 ? String.valueOf(hangulInput) : textToWrite;
+            }
+        }
+
+        int cursorPos = continueComposition(target);
+        long start = System.nanoTime();
+
+        // Each character commits at most one character and outputs at most one more, and there's one preedit.
+        int required = textToWrite.length() * 2 + 1;
+        if (jamoOutput.length < required) {
+            jamoOutput = new char[required];
+        }
+
+        int length = 0;
+        for (int i = 0; i < textToWrite.length(); i++) {
+            char c = textToWrite.charAt(i);
+            char hangulInput = textToWrite.length() == 1 ? keymap.getInput(c, shifted) : keymap.getInput(c);
+
+            if (hangulInput != 0 && composer.canCompose(hangulInput)) {
+                length += appendCommitted(composer.compose(hangulInput), length);
+            } else {
+                Statistics.REJECTED.incrementAndGet();
+
+                length += appendCommitted(composer.commit(), length);
+                jamoOutput[length++] = hangulInput != 0 ? hangulInput : c;
+            }
+        }
+
+        int preeditLength = 0;
+        if (composer.isComposing()) {
+            jamoOutput[length] = composer.getPreedit();
+            preeditLength = 1;
+        }
+
+        Statistics.COMPOSITION.recordSince(start);
+
+        replacePreedit(target, cursorPos, length, preeditLength);
+        return written = new String(jamoOutput, 0, length + preeditLength);
+    }
+
+    private int appendCommitted(char committed, int position) {
+        if (committed == 0) {
+            return 0;
+        }
+
+        jamoOutput[position] = committed;
+        Statistics.COMMITTED.incrementAndGet();
+        return 1;
+    }
+
+    String handleRomajaInput(Object target, String textToWrite) {
+        if (romaja == null) {
+            romaja = new RomajaTransliterator();
+            romajaOutput = new char[RomajaTransliterator.MAX_OUTPUT * 2];
+        }
+
+        endHanja();
+
+        int cursorPos = continueComposition(target);
+
+        int required = (textToWrite.length() + 1) * RomajaTransliterator.MAX_OUTPUT;
+        if (romajaOutput.length < required) {
+            romajaOutput = new char[required];
+        }
+
+        long start = System.nanoTime();
+
+        int length = 0;
+        for (int i = 0; i < textToWrite.length(); i++) {
+            length += romaja.feed(textToWrite.charAt(i), romajaOutput, length);
+        }
+
+        int preeditLength = romaja.getPreedit(romajaOutput, length);
+
+        Statistics.COMPOSITION.recordSince(start);
+        Statistics.COMMITTED.addAndGet(length);
+
+        replacePreedit(target, cursorPos, length, preeditLength);
+        return written = new String(romajaOutput, 0, length + preeditLength);
+    }
+
+    /**
+     * Converts the word before the cursor to Hanja. The word, up to the cursor, becomes the preedit and is replaced by
+     * its first candidate. Converting again straight away replaces it with the next candidate, and after the last
+     * candidate it goes back to Hangul. Anything else typed commits the candidate.
+     * <p>
+     * The longest run of syllables before the cursor that's in the dictionary is converted, so typing 대한민국 converts
+     * the whole word, while 민국 on its own would only convert 국.
+     *
+     * @return The text to insert, or nothing if there's nothing before the cursor to convert.
+     */
+    String handleHanja(Object target, HanjaDictionary dictionary) {
+        boolean converting = hanjaCandidates != null;
+        int cursorPos = continueComposition(target);
+
+        if (converting && hanjaCandidates != null) {
+            hanjaIndex = (hanjaIndex + 1) % (hanjaCandidates.length + 1);
+
+            String replacement = hanjaIndex < hanjaCandidates.length ? hanjaCandidates[hanjaIndex] : hanjaReading;
+            replacePreedit(target, cursorPos, 0, replacement.length());
+            return written = replacement;
+        }
+
+        String text = getText(target);
+
+        int wordStart = cursorPos;
+        while (wordStart > 0 && cursorPos - wordStart < HanjaDictionary.MAX_READING_LENGTH
+                && HangulParser.withinHangulSyllables(text.charAt(wordStart - 1))) {
+            wordStart--;
+        }
+
+        for (int start = wordStart; start < cursorPos; start++) {
+            String[] candidates = dictionary.lookup(text, start, cursorPos);
+
+            if (candidates.length > 0) {
+                // Whether or not it was being composed, the whole word is now the preedit.
+                resetComposers();
+                preeditLength = cursorPos - start;
+
+                hanjaReading = text.substring(start, cursorPos);
+                hanjaCandidates = candidates;
+                hanjaIndex = 0;
+
+                replacePreedit(target, cursorPos, 0, candidates[0].length());
+                return written = candidates[0];
+            }
+        }
+
+        return "";
+    }
+
+    // Leaves the chosen Hanja in the text, so that it's committed.
+    private void endHanja() {
+        if (hanjaCandidates != null) {
+            end();
+        }
+    }
+
+    LayoutCorrector getLayoutCorrector() {
+        return layoutCorrector;
+    }
+
+    /**
+     * Checks that the cursor is still just after the preedit, and that the preedit is still there, ending composition
+     * if it isn't.
+     *
+     * @return The cursor position.
+     */
+    private int continueComposition(Object target) {
+        int cursorPos = getCursorPosition(target);
+        boolean selecting = target instanceof GuiTextField && ((GuiTextField) target).getSelectionEnd() != cursorPos;
+
+        if (composing && (cursorPos != preeditEnd || selecting || !preeditIntact(target, cursorPos))) {
+            // The cursor has moved, or the text has changed, so whatever was being composed is left as it is.
+            end();
+        }
+
+        return cursorPos;
+    }
+
+    /**
+     * Books have no cursor to move, so a page turn or a text field changed by the game can leave the cursor where the
+     * preedit ended. Only the preedit itself is compared, so this doesn't depend on the length of the text.
+     */
+    private boolean preeditIntact(Object target, int cursorPos) {
+        if (preeditLength == 0) {
+            return true;
+        }
+
+        return cursorPos >= preeditLength && written.length() >= preeditLength && getText(target)
+                .regionMatches(cursorPos - preeditLength, written, written.length() - preeditLength, preeditLength);
+    }
+
+    /**
+     * Selects the old preedit, so that writing the new text replaces it, and remembers where the new preedit will be.
+     *
+     * @param committedLength  The length of the committed text about to be written.
+     * @param newPreeditLength The length of the preedit written after it.
+     */
+    private void replacePreedit(Object target, int cursorPos, int committedLength, int newPreeditLength) {
+        if (preeditLength > 0) {
+            selectBeforeCursor(target, cursorPos, preeditLength);
+        }
+
+        composing = true;
+        preeditEnd = cursorPos - preeditLength + committedLength + newPreeditLength;
+        preeditLength = newPreeditLength;
+    }
+
+    /**
+     * Selects the text just before the cursor, so that writing replaces it.
+     */
+    static void selectBeforeCursor(Object target, int cursorPos, int length) {
+        if (target instanceof GuiTextField) {
+            ((GuiTextField) target).setSelectionPos(cursorPos - length);
+        } else {
+            // There's no selection to replace, so take the text off the end before the new text is added.
+            TextTarget textTarget = (TextTarget) target;
+            textTarget.wonseok$setText(textTarget.wonseok$getText().substring(0, cursorPos - length));
+            Statistics.TEXT_REWRITES.incrementAndGet();
+        }
+    }
+
+    static int getCursorPosition(Object target) {
+        if (target instanceof GuiTextField) {
+            return ((GuiTextField) target).getCursorPosition();
+        }
+
+        return ((TextTarget) target).wonseok$getText().length();
+    }
+
+    static String getText(Object target) {
+        if (target instanceof GuiTextField) {
+            return ((GuiTextField) target).getText();
+        }
+
+        return ((TextTarget) target).wonseok$getText();
+    }
+
+    /**
+     * Ends composition, leaving the preedit in the text as it is.
+     */
+    void end() {
+        resetComposers();
+
+        composing = false;
+        preeditLength = 0;
+        written = null;
+
+        hanjaReading = null;
+        hanjaCandidates = null;
+    }
+
+    private void resetComposers() {
+        if (composer != null) {
+            composer.reset();
+        }
+
+        if (romaja != null) {
+            romaja.reset();
+        }
+    }
+}
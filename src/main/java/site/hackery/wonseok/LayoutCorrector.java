@@ -0,0 +1,158 @@
+package site.hackery.wonseok;
+
+import site.hackery.wonseok.util.JamoComposer;
+import site.hackery.wonseok.util.keymap.Keymap;
+import site.hackery.wonseok.util.keymap.KoreanKeymaps;
+import site.hackery.wonseok.util.ngram.LayoutDetector;
+
+/**
+ * Notices words typed with the IME in the wrong state, like 'dkssud' for 안녕 or '뭉ㄷ' for 'and', and converts them.
+ * <p>
+ * Every keystroke of the current word is scored by a {@link LayoutDetector} as it's typed. When the word ends, if it
+ * looks like the other language, it's converted right away with auto-correction on, or otherwise offered: pressing
+ * Shift+Space straight after the word converts it as well as toggling the IME.
+ * <p>
+ * A word is only ever converted if it's still in the text exactly as the keystrokes typed it, so anything that changed
+ * it in the meantime, like a backspace or the cursor moving, leaves it alone.
+ */
+class LayoutCorrector {
+    // Only 두벌식 words are recognized.
+    private static final Keymap KEYMAP = KoreanKeymaps.DUBEOLSIK;
+
+    // Longer words are left alone. They're rarely typed in the wrong layout without noticing.
+    private static final int MAX_WORD_LENGTH = 32;
+
+    private final LayoutDetector detector = new LayoutDetector();
+    private final JamoComposer composer = KEYMAP.newComposer();
+    private final StringBuilder composed = new StringBuilder();
+
+    private final char[] keys = new char[MAX_WORD_LENGTH];
+    private int wordStart;
+    private boolean tooLong;
+
+    // The last word, if it's on offer, and what it would become.
+    private String offeredWord;
+    private String offeredCorrection;
+    private int offerStart;
+
+    /**
+     * Scores a keystroke, and checks the word it ends, if it ends one.
+     *
+     * @param hangul Whether the IME is on.
+     * @param apply  Whether to convert the word now, rather than offering to.
+     * @return The text to write instead, which is the converted word followed by the keystroke, or null to type the
+     *         keystroke as usual. If it isn't null, the word has been selected, and the IME should be toggled.
+     */
+    String handleKey(Object target, String textToWrite, boolean hangul, boolean apply) {
+        offeredWord = null;
+
+        if (textToWrite.length() != 1) {
+            // Pasted text isn't typed, so it can't have been typed in the wrong layout.
+            endWord();
+            return null;
+        }
+
+        char key = textToWrite.charAt(0);
+        int length = detector.length();
+
+        if (detector.feed(key)) {
+            if (length == 0) {
+                wordStart = CompositionSession.getCursorPosition(target);
+            }
+
+            if (length < keys.length) {
+                keys[length] = key;
+            } else {
+                tooLong = true;
+            }
+
+            return null;
+        }
+
+        String replacement = null;
+
+        if (length > 0 && !tooLong && (hangul ? detector.looksLikeLatin() : detector.looksLikeHangul())) {
+            int cursorPos = CompositionSession.getCursorPosition(target);
+            String text = CompositionSession.getText(target);
+            String correction = hangul ? new String(keys, 0, length) : compose(length);
+            String typed = hangul ? compose(length) : new String(keys, 0, length);
+
+            if (cursorPos - wordStart == typed.length() && text.startsWith(typed, wordStart)) {
+                if (apply) {
+                    CompositionSession.selectBeforeCursor(target, cursorPos, typed.length());
+                    replacement = correction + key;
+                } else {
+                    offeredWord = typed + key;
+                    offeredCorrection = correction + key;
+                    offerStart = wordStart;
+                }
+            }
+        }
+
+        endWord();
+        return replacement;
+    }
+
+    /**
+     * Converts the word on offer, if the cursor is still just after it.
+     *
+     * @return The text to write instead, which is the converted word, or null if nothing's on offer. If it isn't null,
+     *         the word has been selected.
+     */
+    String acceptOffer(Object target) {
+        String word = offeredWord;
+        offeredWord = null;
+
+        if (word == null) {
+            return null;
+        }
+
+        int cursorPos = CompositionSession.getCursorPosition(target);
+
+        if (cursorPos - offerStart != word.length() || !CompositionSession.getText(target).startsWith(word, offerStart)) {
+            return null;
+        }
+
+        CompositionSession.selectBeforeCursor(target, cursorPos, word.length());
+        return offeredCorrection;
+    }
+
+    /**
+     * Forgets the current word and any offer.
+     */
+    void reset() {
+        endWord();
+        offeredWord = null;
+    }
+
+    private void endWord() {
+        detector.reset();
+        tooLong = false;
+    }
+
+    // Types the keys of the current word through the keymap, as the IME would.
+    private String compose(int length) {
+        composed.setLength(0);
+        composer.reset();
+
+        for (int i = 0; i < length; i++) {
+            char input = KEYMAP.getInput(keys[i]);
+
+            if (composer.canCompose(input)) {
+                append(composer.compose(input));
+            } else {
+                append(composer.commit());
+                composed.append(input);
+            }
+        }
+
+        append(composer.commit());
+        return composed.toString();
+    }
+
+    private void append(char committed) {
+        if (committed != 0) {
+            composed.append(committed);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package site.hackery.wonseok;
+
+import site.hackery.wonseok.util.stats.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and counts for typing through Wonseok, to track down hitches while typing.
+ * <p>
+ * These are always recorded, since recording only costs a couple of {@link System#nanoTime()} calls and atomic
+ * increments per keystroke. Press Ctrl+Alt+Space in a text input to print them to the log, or run the game with
+ * {@code -Dwonseok.statistics=<file>} to have them written to a file when the game exits.
+ */
+public class Statistics {
+    /**
+     * The whole of each call to the text input hook.
+     */
+    public static final LatencyHistogram HOOK = new LatencyHistogram("hook");
+    /**
+     * Composing typed input into syllables.
+     */
+    public static final LatencyHistogram COMPOSITION = new LatencyHistogram("composition");
+    /**
+     * The text input inserting the text returned by the hook, i.e. GuiTextField.writeText, which copies the whole
+     * text. This is timed from the hook returning until the patched input calls {@code Wonseok.afterTextInputHook}.
+     */
+    public static final LatencyHistogram TEXT_UPDATE = new LatencyHistogram("text update");
+
+    /**
+     * Characters which can no longer change, i.e. finished syllables.
+     */
+    public static final AtomicLong COMMITTED = new AtomicLong();
+    /**
+     * Typed input which couldn't be composed, and was written as it is.
+     */
+    public static final AtomicLong REJECTED = new AtomicLong();
+    /**
+     * Preedits replaced by setting the whole text, for inputs without a cursor, like books.
+     */
+    public static final AtomicLong TEXT_REWRITES = new AtomicLong();
+
+    static {
+        String file = System.getProperty("wonseok.statistics");
+
+        if (file != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dumpToFile(Paths.get(file)), "Wonseok statistics"));
+        }
+    }
+
+    public static void dump(Appendable out) throws IOException {
+        HOOK.dump(out);
+        COMPOSITION.dump(out);
+        TEXT_UPDATE.dump(out);
+
+        out.append(String.format("committed=%d rejected=%d text rewrites=%d%n",
+                COMMITTED.get(), REJECTED.get(), TEXT_REWRITES.get()));
+    }
+
+    /**
+     * Prints the statistics to the log.
+     */
+    public static void dumpToLog() {
+        StringWriter out = new StringWriter();
+
+        try {
+            dump(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringWriter doesn't throw.
+        }
+
+        System.out.print("[Wonseok] Statistics:\n" + out);
+    }
+
+    public static void dumpToFile(Path file) {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            dump(out);
+        } catch (IOException e) {
+            System.out.println("[Wonseok] Couldn't write statistics to " + file + ": " + e);
+        }
+    }
+
+    public static void reset() {
+        HOOK.reset();
+        COMPOSITION.reset();
+        TEXT_UPDATE.reset();
+        COMMITTED.set(0);
+        REJECTED.set(0);
+        TEXT_REWRITES.set(0);
+    }
+}
@@ -2,79 +2,311 @@ package site.hackery.wonseok;
 
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.client.gui.GuiTextField;
-import org.apache.commons.lang3.StringUtils;
-import org.lwjgl.input.Keyboard;
-import site.hackery.wonseok.util.HangulParser;
+import site.hackery.wonseok.launch.WonseokTweaker;
+import site.hackery.wonseok.patch.TextTarget;
+import site.hackery.wonseok.util.hanja.HanjaDictionary;
 import site.hackery.wonseok.util.keymap.Keymap;
 import site.hackery.wonseok.util.keymap.KoreanKeymaps;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BooleanSupplier;
+
 public class Wonseok {
+    /**
+     * Filled in from the version in build.gradle when the mod is built. This is a compile-time constant, so using it
+     * doesn't load this class (and with it, Minecraft's GUI classes).
+     */
+    public static final String VERSION = "@VERSION@";
+
     private static final Wonseok INSTANCE = new Wonseok();
 
-    private final Keymap keymap = KoreanKeymaps.DUBEOLSIK;
+    // Words typed in the wrong layout are "offer"ed for conversion by default, or converted straight away with "auto".
+    private static final String LAYOUT_CORRECTION = System.getProperty("wonseok.layoutCorrection", "offer");
+
+    private Keymap keymap = KoreanKeymaps.DUBEOLSIK;
     private boolean imeIsEnabled = false;
+    private boolean romajaInput = false;
 
-    private String handleInput(GuiTextField textField, String textToWrite) {
-        if (StringUtils.isAlpha(textToWrite)) {
-            int selectionStart = Math.min(textField.getSelectionEnd(), textField.getCursorPosition());
-            int selectionEnd = Math.max(textField.getSelectionEnd(), textField.getCursorPosition());
+    // Whether shift is held, which can't be told from the typed character: Caps Lock types 'R' without it.
+    private BooleanSupplier shiftKeyDown = GuiScreen::isShiftKeyDown;
 
-            String currentText = textField.getText().substring(0, selectionStart);
-            String afterSelectionText = textField.getText().substring(selectionEnd);
+    // Each text input gets its own session, which is dropped once the input's GUI is garbage collected.
+    // GUIs don't override equals() or hashCode(), so this is keyed by identity.
+    private final Map<Object, CompositionSession> sessions = new WeakHashMap<>();
+    // Only one input has focus at a time, so switching to another input ends the previous one's composition.
+    private CompositionSession activeSession;
 
-            char typedChar = textToWrite.charAt(0);
-            int keyIndex = Keyboard.getKeyIndex(String.valueOf(Character.toUpperCase(typedChar)));
+    // Inputs without a cursor have the old preedit taken off the end before the new text is inserted. If they then
+    // reject the insert, i.e. a full book page, their text is put back as it was. Text fields have the old preedit
+    // selected instead, and if they reject the insert, i.e. to a number field, the selection is dropped.
+    private Object insertTarget;
+    private String textBeforeInsert;
+    private int lengthAfterInsert;
+    // When the last hook returned, to time the input inserting its text.
+    private long insertStart;
 
-            Keymap.Key hangulKey = keymap.getKeymap().get(keyIndex);
-            char hangulInput = GuiScreen.isShiftKeyDown() ? hangulKey.getShiftedInput() : hangulKey.getInput();
+    // Loaded the first time Hanja conversion is used, since most players never will.
+    private HanjaDictionary hanjaDictionary;
+    private boolean hanjaUnavailable;
 
-            if (currentText.toCharArray().length > 0) {
-                char lastChar = currentText.toCharArray()[currentText.toCharArray().length - 1];
-                if (HangulParser.withinHangulSyllables(lastChar) || HangulParser.withinHangulJamo(lastChar)) {
-                    int cursorPos = textField.getCursorPosition(); // setText overwrites the cursor position, so save it here.
-                    int selectionPos = textField.getSelectionEnd(); // Setting the cursor position sets the value of selectionPos, so save it here.
+    private String handleInput(Object target, String textToWrite) {
+        CompositionSession session = getSession(target);
 
-                    // Trim the character before the selection, since we're modifying it instead of adding to the text.
-                    textField.setText(currentText.substring(0, currentText.length() - 1) + afterSelectionText);
+        if (romajaInput) {
+            return session.handleRomajaInput(target, textToWrite);
+        }
 
-                    textField.setCursorPosition(cursorPos - 1);
-                    textField.setSelectionPos(selectionPos - 1);
+        return session.handleInput(target, textToWrite, keymap, shiftKeyDown.getAsBoolean());
+    }
 
-                    return addToSyllable(lastChar, hangulInput);
-                }
-            }
+    private String handleHanja(Object target) {
+        HanjaDictionary dictionary = getHanjaDictionary();
+
+        if (dictionary == null) {
+            return "";
+        }
+
+        return getSession(target).handleHanja(target, dictionary);
+    }
+
+    private CompositionSession getSession(Object target) {
+        CompositionSession session = sessions.get(target);
+
+        if (session == null) {
+            session = new CompositionSession();
+            sessions.put(target, session);
+        }
 
-            return String.valueOf(hangulInput);
+        if (session != activeSession) {
+            endComposition();
+            activeSession = session;
         }
 
-        return textToWrite;
+        return session;
     }
 
-    private String addToSyllable(char syllable, char typedJamo) {
-        StringBuilder jamo = new StringBuilder();
+    private HanjaDictionary getHanjaDictionary() {
+        if (hanjaDictionary == null && !hanjaUnavailable) {
+            // The dictionary is kept in the game directory, where it can be memory-mapped, rather than read out of the jar.
+            File dataDirectory = WonseokTweaker.getDataDirectory();
+            String name = "hanja-" + VERSION + "-" + HanjaDictionary.FORMAT_VERSION + ".bin";
+            File file = dataDirectory != null ? new File(dataDirectory, name) : null;
 
-        if (HangulParser.withinHangulSyllables(syllable)) {
-            for (char c : HangulParser.deconstruct(syllable)) {
-                jamo.append(c);
+            try {
+                hanjaDictionary = HanjaDictionary.load(file != null ? file.toPath() : null);
+            } catch (IOException e) {
+                System.out.println("[Wonseok] Couldn't load the Hanja dictionary: " + e);
+                hanjaUnavailable = true;
             }
+        }
+
+        return hanjaDictionary;
+    }
+
+    private void endComposition() {
+        if (activeSession != null) {
+            activeSession.end();
+            activeSession.getLayoutCorrector().reset();
+        }
+    }
+
+    // Words can only be told apart when the IME is either off, or typing 두벌식.
+    private boolean canCorrectLayout() {
+        return !LAYOUT_CORRECTION.equals("off") && (!imeIsEnabled || keymap == KoreanKeymaps.DUBEOLSIK && !romajaInput);
+    }
+
+    // Cycles through each keyboard layout, followed by romaja input.
+    private void switchLayout() {
+        List<Keymap> keymaps = KoreanKeymaps.all();
+
+        if (romajaInput) {
+            setRomajaInput(false);
+            setKeymap(keymaps.get(0));
+            return;
+        }
+
+        int next = keymaps.indexOf(keymap) + 1;
+        if (next < keymaps.size()) {
+            setKeymap(keymaps.get(next));
         } else {
-            jamo.append(syllable);
+            setRomajaInput(true);
         }
+    }
 
-        jamo.append(typedJamo);
+    public static boolean isImeEnabled() {
+        return INSTANCE.imeIsEnabled;
+    }
+
+    public static void setImeEnabled(boolean enabled) {
+        INSTANCE.imeIsEnabled = enabled;
+        INSTANCE.endComposition();
+    }
+
+    public static Keymap getKeymap() {
+        return INSTANCE.keymap;
+    }
 
-        return HangulParser.construct(jamo.toString().toCharArray());
+    public static void setKeymap(Keymap keymap) {
+        INSTANCE.keymap = keymap;
+        INSTANCE.endComposition();
     }
 
+    public static boolean isRomajaInput() {
+        return INSTANCE.romajaInput;
+    }
+
+    public static void setRomajaInput(boolean romajaInput) {
+        INSTANCE.romajaInput = romajaInput;
+        INSTANCE.endComposition();
+    }
+
+    /**
+     * Replaces how the state of the shift key is read, for typing without a keyboard, i.e. in benchmarks and tests.
+     */
+    public static void setShiftKeyDown(BooleanSupplier shiftKeyDown) {
+        INSTANCE.shiftKeyDown = shiftKeyDown;
+    }
+
+    /**
+     * Called by every hooked text input with the text it's about to insert, i.e. from GuiTextField.textboxKeyTyped.
+     *
+     * @param target The GuiTextField or {@link TextTarget} being typed into.
+     * @return The text to insert instead.
+     */
     // Parameters are ordered this way so that we can ALOAD 0 straight before invoking the method
-    public static String writeTextHook(String textToWrite, GuiTextField textField) {
-        if (GuiScreen.isShiftKeyDown() && textToWrite.equals(" ")) {
-            INSTANCE.imeIsEnabled = !INSTANCE.imeIsEnabled;
+    public static String textInputHook(String textToWrite, Object target) {
+        long start = System.nanoTime();
+
+        try {
+            if (target instanceof TextTarget) {
+                return INSTANCE.handleTextTargetHook(textToWrite, (TextTarget) target);
+            }
+
+            if (target instanceof GuiTextField) {
+                return INSTANCE.handleTextFieldHook(textToWrite, (GuiTextField) target);
+            }
+
+            return INSTANCE.handleHook(textToWrite, target);
+        } finally {
+            long end = System.nanoTime();
+
+            Statistics.HOOK.record(end - start);
+            INSTANCE.insertStart = end;
+        }
+    }
+
+    /**
+     * Called by every hooked text input once it has inserted the text returned by {@link #textInputHook}, or refused to.
+     *
+     * @param target The GuiTextField or {@link TextTarget} being typed into.
+     */
+    public static void afterTextInputHook(Object target) {
+        Statistics.TEXT_UPDATE.recordSince(INSTANCE.insertStart);
+
+        if (target == INSTANCE.insertTarget) {
+            INSTANCE.checkInsert();
+        }
+    }
+
+    private String handleTextTargetHook(String textToWrite, TextTarget target) {
+        String textBefore = target.wonseok$getText();
+        String written = handleHook(textToWrite, target);
+        String textAfter = target.wonseok$getText();
+
+        if (textAfter.length() != textBefore.length()) {
+            insertTarget = target;
+            textBeforeInsert = textBefore;
+            lengthAfterInsert = textAfter.length() + written.length();
+        }
+
+        return written;
+    }
+
+    private String handleTextFieldHook(String textToWrite, GuiTextField target) {
+        int selectionBefore = target.getSelectionEnd();
+        String written = handleHook(textToWrite, target);
+
+        if (target.getSelectionEnd() != selectionBefore) {
+            // Something was selected to be replaced, i.e. the old preedit.
+            insertTarget = target;
+            textBeforeInsert = target.getText();
+        }
+
+        return written;
+    }
+
+    private void checkInsert() {
+        if (insertTarget instanceof GuiTextField) {
+            GuiTextField textField = (GuiTextField) insertTarget;
+
+            // writeText builds a new string whenever it changes the text.
+            if (textField.getText() == textBeforeInsert) {
+                // The insert was refused, so the selection is left over from it.
+                textField.setSelectionPos(textField.getCursorPosition());
+                endComposition();
+            }
+        } else {
+            TextTarget textTarget = (TextTarget) insertTarget;
+
+            if (textTarget.wonseok$getText().length() != lengthAfterInsert) {
+                // The insert was refused, so put back what was taken off, and leave it there.
+                textTarget.wonseok$setText(textBeforeInsert);
+                endComposition();
+            }
+        }
+
+        insertTarget = null;
+        textBeforeInsert = null;
+    }
+
+    private String handleHook(String textToWrite, Object target) {
+        if (textToWrite.equals(" ") && GuiScreen.isCtrlKeyDown() && GuiScreen.isAltKeyDown()) {
+            // Ctrl+Alt+Space prints the typing statistics so far, to look into a hitch as it happens.
+            Statistics.dumpToLog();
             return "";
         }
 
-        if (INSTANCE.imeIsEnabled) {
-            return INSTANCE.handleInput(textField, textToWrite);
+        if (textToWrite.equals(" ") && shiftKeyDown.getAsBoolean()) {
+            if (GuiScreen.isCtrlKeyDown()) {
+                // Ctrl+Shift+Space switches to the next layout.
+                switchLayout();
+            } else {
+                // Straight after a word typed in the wrong layout, this converts the word too.
+                String corrected = canCorrectLayout() ? getSession(target).getLayoutCorrector().acceptOffer(target) : null;
+
+                imeIsEnabled = !imeIsEnabled;
+                endComposition();
+
+                if (corrected != null) {
+                    return corrected;
+                }
+            }
+
+            return "";
+        }
+
+        if (textToWrite.equals(" ") && imeIsEnabled && GuiScreen.isCtrlKeyDown()) {
+            // Ctrl+Space converts the word before the cursor to Hanja, or moves on to the next candidate.
+            return handleHanja(target);
+        }
+
+        if (canCorrectLayout()) {
+            String corrected = getSession(target).getLayoutCorrector()
+                    .handleKey(target, textToWrite, imeIsEnabled, LAYOUT_CORRECTION.equals("auto"));
+
+            if (corrected != null) {
+                imeIsEnabled = !imeIsEnabled;
+                endComposition();
+                return corrected;
+            }
+        }
+
+        if (imeIsEnabled) {
+            return handleInput(target, textToWrite);
         } else {
             return textToWrite;
         }
@@ -1,16 +1,87 @@
 package site.hackery.wonseok.launch;
 
 import net.minecraft.launchwrapper.IClassTransformer;
-import site.hackery.wonseok.patch.GuiTextFieldPatcher;
+import site.hackery.wonseok.Wonseok;
+import site.hackery.wonseok.patch.Hook;
+import site.hackery.wonseok.patch.HookPatcher;
+import site.hackery.wonseok.patch.Hooks;
+import site.hackery.wonseok.patch.PatchCache;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 public class WonseokTransformer implements IClassTransformer {
+    private static final String WARMUP_CLASS = "site.hackery.wonseok.util.Warmup";
+
+    // Set by the tweaker before this transformer is registered, since transformers are created by the class loader.
+    private static PatchCache cache;
+    private static volatile ClassLoader warmupLoader;
+
+    static void setCacheDirectory(File directory) {
+        if (directory == null) {
+            cache = null;
+            return;
+        }
+
+        // Hooks are part of the version too, since they decide which methods are patched.
+        String version = PatchCache.version(Wonseok.VERSION, HookPatcher.class, Hook.class, Hooks.class);
+        cache = new PatchCache(directory.toPath(), version);
+    }
+
+    /**
+     * Warms up Wonseok in the background once the game starts loading, so that the first keystroke doesn't hitch.
+     * It waits for the game's main class, since until then other tweakers can still be registering transformers,
+     * which isn't safe while another thread loads classes.
+     *
+     * @param loader The class loader the game's classes are loaded by, so that the warm-up uses the same classes.
+     */
+    static void scheduleWarmup(ClassLoader loader) {
+        warmupLoader = loader;
+    }
+
+    private static void startWarmup(ClassLoader loader) {
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+
+            try {
+                Object checksum = ((Callable<?>) Class.forName(WARMUP_CLASS, true, loader).newInstance()).call();
+                System.out.println("[Wonseok] Warmed up in " + (System.nanoTime() - start) / 1000000 + "ms"
+                        + " (checksum " + checksum + ")");
+            } catch (Exception e) {
+                System.out.println("[Wonseok] Couldn't warm up: " + e);
+            }
+        }, "Wonseok warm-up");
+
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
     @Override
     public byte[] transform(String name, String transformedName, byte[] basicClass) {
-        if (GuiTextFieldPatcher.classMatches(name.replace('.', '/'))) {
-            System.out.println("[Wonseok] Patching GuiTextField!");
-            return new GuiTextFieldPatcher().patchClass(name, basicClass);
+        ClassLoader loader = warmupLoader;
+
+        if (loader != null && WonseokTweaker.LAUNCH_TARGET.equals(transformedName)) {
+            warmupLoader = null;
+            startWarmup(loader);
+        }
+
+        List<Hook> hooks = Hooks.forClass(name);
+
+        if (basicClass != null && !hooks.isEmpty()) {
+            if (cache != null) {
+                return cache.get(name, basicClass, bytes -> patch(name, bytes, hooks));
+            }
+
+            return patch(name, basicClass, hooks);
         }
 
         return basicClass;
     }
+
+    private static byte[] patch(String name, byte[] basicClass, List<Hook> hooks) {
+        System.out.println("[Wonseok] Patching " + name + "!");
+        return new HookPatcher().patchClass(basicClass, hooks);
+    }
 }
@@ -8,11 +8,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class WonseokTweaker implements ITweaker {
+    static final String LAUNCH_TARGET = "net.minecraft.client.main.Main";
+
+    private static File dataDirectory;
+
     private final List<String> args = new ArrayList<>();
+    private File gameDir;
 
     @Override
     public void acceptOptions(List<String> list, File gameDir, File assetsDir, String profile) {
         args.addAll(list);
+        this.gameDir = gameDir;
 
         if (!args.contains("--version") && profile != null) {
             args.add("--version");
@@ -32,12 +38,28 @@ public class WonseokTweaker implements ITweaker {
 
     @Override
     public void injectIntoClassLoader(LaunchClassLoader launchClassLoader) {
+        // This tweaker's package is excluded from the launch class loader, so the transformer and the mod itself see the
+        // same statics.
+        dataDirectory = gameDir != null ? new File(gameDir, "wonseok") : null;
+        WonseokTransformer.setCacheDirectory(dataDirectory != null ? new File(dataDirectory, "cache") : null);
+
+        // Run the game with -Dwonseok.warmup=false to skip warming up.
+        if (!"false".equals(System.getProperty("wonseok.warmup"))) {
+            WonseokTransformer.scheduleWarmup(launchClassLoader);
+        }
         launchClassLoader.registerTransformer(WonseokTransformer.class.getName());
     }
 
+    /**
+     * @return The directory Wonseok keeps its files in, or null if the game wasn't launched through this tweaker.
+     */
+    public static File getDataDirectory() {
+        return dataDirectory;
+    }
+
     @Override
     public String getLaunchTarget() {
-        return "net.minecraft.client.main.Main";
+        return LAUNCH_TARGET;
     }
 
     @Override
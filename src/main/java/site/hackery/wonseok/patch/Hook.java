@@ -0,0 +1,83 @@
+package site.hackery.wonseok.patch;
+
+/**
+ * Describes where text typed into a GUI is hooked: a call, inside the method that handles typed keys, which is passed
+ * the text to insert. Each such call in the method, for typed characters and pastes, has its text passed through
+ * Wonseok first.
+ * <p>
+ * Each hook is for a single set of names, so a target is registered once with its MCP names and once with its
+ * obfuscated (Notch) names.
+ */
+public class Hook {
+    private final String className;
+    private final String methodName;
+    private final String methodDesc;
+    private final String callName;
+    private final String callDesc;
+
+    private final String textGetter;
+    private final String textSetter;
+
+    /**
+     * @param className  The internal name of the class to patch, i.e. "net/minecraft/client/gui/GuiTextField".
+     * @param methodName The name of the method which handles typed keys.
+     * @param methodDesc The descriptor of that method.
+     * @param callName   The name of the method it calls, on the same class, to insert text.
+     * @param callDesc   The descriptor of that call, whose last parameter is the String to insert.
+     */
+    public Hook(String className, String methodName, String methodDesc, String callName, String callDesc) {
+        this(className, methodName, methodDesc, callName, callDesc, null, null);
+    }
+
+    /**
+     * For targets without a text cursor, like books, which always insert at the end of their text.
+     * The class is made to implement {@link TextTarget} using the given getter and setter, so that Wonseok can replace
+     * the character being composed.
+     *
+     * @param textGetter The name of a method on the class, with descriptor {@code ()Ljava/lang/String;}, returning its
+     *                   text.
+     * @param textSetter The name of a method on the class, with descriptor {@code (Ljava/lang/String;)V}, setting it.
+     */
+    public Hook(String className, String methodName, String methodDesc, String callName, String callDesc,
+                String textGetter, String textSetter) {
+        this.className = className;
+        this.methodName = methodName;
+        this.methodDesc = methodDesc;
+        this.callName = callName;
+        this.callDesc = callDesc;
+        this.textGetter = textGetter;
+        this.textSetter = textSetter;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public String getMethodDesc() {
+        return methodDesc;
+    }
+
+    public String getCallName() {
+        return callName;
+    }
+
+    public String getCallDesc() {
+        return callDesc;
+    }
+
+    public String getTextGetter() {
+        return textGetter;
+    }
+
+    public String getTextSetter() {
+        return textSetter;
+    }
+
+    public boolean hasTextAccessors() {
+        return textGetter != null;
+    }
+}
@@ -0,0 +1,205 @@
+package site.hackery.wonseok.patch;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class HookPatcher {
+    private static final String TEXT_TARGET = "site/hackery/wonseok/patch/TextTarget";
+
+    private static final String HOOK_OWNER = "site/hackery/wonseok/Wonseok";
+    private static final String HOOK_NAME = "textInputHook";
+    private static final String HOOK_DESC = "(Ljava/lang/String;Ljava/lang/Object;)Ljava/lang/String;";
+    private static final String AFTER_HOOK_NAME = "afterTextInputHook";
+    private static final String AFTER_HOOK_DESC = "(Ljava/lang/Object;)V";
+
+    /**
+     * Hooks the calls inserting text in each hooked method, passing the text through {@code Wonseok.textInputHook}
+     * first, and calling {@code Wonseok.afterTextInputHook} once it's been inserted (or not). That's typed characters
+     * and pastes; calls inserting a constant, like the empty string that cutting inserts, are left alone.
+     * <p>
+     * The class is streamed straight from the reader to the writer, so every other method is copied through as it is,
+     * without being parsed. Only hooked methods are buffered, since we need to find the calls in them.
+     *
+     * <p>
+     * If the class doesn't declare the text accessors a hook names, it's returned as it is, since it isn't the class
+     * the hook was written for.
+     *
+     * @param hooks The hooks in this class, all with the same set of names.
+     */
+    public byte[] patchClass(byte[] classBuffer, List<Hook> hooks) {
+        ClassReader reader = new ClassReader(classBuffer);
+
+        for (Hook hook : hooks) {
+            if (hook.hasTextAccessors() && !declaresTextAccessors(reader, hook)) {
+                System.out.println("[Wonseok] Couldn't find the text accessors in " + reader.getClassName() + ", not patching it!");
+                return classBuffer;
+            }
+        }
+
+        // Passing the reader lets the writer copy the constant pool and any untouched methods as they are.
+        // The hooks don't add any branches, so the existing frames stay valid and don't need computing.
+        ClassWriter writer = new ClassWriter(reader, 0);
+
+        reader.accept(new PatchingClassVisitor(writer, hooks), 0);
+
+        return writer.toByteArray();
+    }
+
+    private static boolean declaresTextAccessors(ClassReader reader, Hook hook) {
+        boolean[] found = new boolean[2];
+
+        // Only the method headers are needed, so code isn't even parsed.
+        reader.accept(new ClassVisitor(Opcodes.ASM5) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                if (name.equals(hook.getTextGetter()) && desc.equals("()Ljava/lang/String;")) {
+                    found[0] = true;
+                } else if (name.equals(hook.getTextSetter()) && desc.equals("(Ljava/lang/String;)V")) {
+                    found[1] = true;
+                }
+
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        return found[0] && found[1];
+    }
+
+    private static class PatchingClassVisitor extends ClassVisitor {
+        private final List<Hook> hooks;
+        private Hook textAccessors;
+        private String className;
+
+        PatchingClassVisitor(ClassVisitor next, List<Hook> hooks) {
+            super(Opcodes.ASM5, next);
+            this.hooks = hooks;
+
+            for (Hook hook : hooks) {
+                if (hook.hasTextAccessors()) {
+                    textAccessors = hook;
+                }
+            }
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            className = name;
+
+            if (textAccessors != null) {
+                interfaces = interfaces == null ? new String[1] : Arrays.copyOf(interfaces, interfaces.length + 1);
+                interfaces[interfaces.length - 1] = TEXT_TARGET;
+            }
+
+            super.visit(version, access, name, signature, superName, interfaces);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            final MethodVisitor next = super.visitMethod(access, name, desc, signature, exceptions);
+            final Hook hook = findHook(name, desc);
+
+            if (hook == null) {
+                return next;
+            }
+
+            return new MethodNode(Opcodes.ASM5, access, name, desc, signature, exceptions) {
+                @Override
+                public void visitEnd() {
+                    if (hookCalls(this, hook)) {
+                        // The hook needs one more stack slot, for this.
+                        maxStack += 1;
+                    } else {
+                        System.out.println("[Wonseok] Couldn't find " + hook.getCallName() + " in " + className + "." + name + "!");
+                    }
+
+                    accept(next);
+                }
+            };
+        }
+
+        @Override
+        public void visitEnd() {
+            if (textAccessors != null) {
+                generateTextAccessors(textAccessors);
+            }
+
+            super.visitEnd();
+        }
+
+        private Hook findHook(String name, String desc) {
+            for (Hook hook : hooks) {
+                if (hook.getMethodName().equals(name) && hook.getMethodDesc().equals(desc)) {
+                    return hook;
+                }
+            }
+
+            return null;
+        }
+
+        private boolean hookCalls(MethodNode method, Hook hook) {
+            boolean hooked = false;
+
+            for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                if (!(insn instanceof MethodInsnNode)) {
+                    continue;
+                }
+
+                MethodInsnNode methodInsn = (MethodInsnNode) insn;
+                if (methodInsn.getOpcode() != Opcodes.INVOKESTATIC && methodInsn.owner.equals(className)
+                        && methodInsn.name.equals(hook.getCallName()) && methodInsn.desc.equals(hook.getCallDesc())
+                        && !(methodInsn.getPrevious() instanceof LdcInsnNode)) {
+                    InsnList instructions = new InsnList();
+
+                    instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+                    instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, HOOK_OWNER, HOOK_NAME, HOOK_DESC, false));
+
+                    method.instructions.insertBefore(insn, instructions);
+
+                    InsnList after = new InsnList();
+
+                    after.add(new VarInsnNode(Opcodes.ALOAD, 0));
+                    after.add(new MethodInsnNode(Opcodes.INVOKESTATIC, HOOK_OWNER, AFTER_HOOK_NAME, AFTER_HOOK_DESC, false));
+
+                    method.instructions.insert(insn, after);
+                    // Carry on after the calls just inserted.
+                    insn = insn.getNext().getNext();
+                    hooked = true;
+                }
+            }
+
+            return hooked;
+        }
+
+        private void generateTextAccessors(Hook hook) {
+            // INVOKESPECIAL calls the exact method, which works whether or not the accessors are private.
+            MethodVisitor getter = cv.visitMethod(Opcodes.ACC_PUBLIC, "wonseok$getText", "()Ljava/lang/String;", null, null);
+            getter.visitCode();
+            getter.visitVarInsn(Opcodes.ALOAD, 0);
+            getter.visitMethodInsn(Opcodes.INVOKESPECIAL, className, hook.getTextGetter(), "()Ljava/lang/String;", false);
+            getter.visitInsn(Opcodes.ARETURN);
+            getter.visitMaxs(1, 1);
+            getter.visitEnd();
+
+            MethodVisitor setter = cv.visitMethod(Opcodes.ACC_PUBLIC, "wonseok$setText", "(Ljava/lang/String;)V", null, null);
+            setter.visitCode();
+            setter.visitVarInsn(Opcodes.ALOAD, 0);
+            setter.visitVarInsn(Opcodes.ALOAD, 1);
+            setter.visitMethodInsn(Opcodes.INVOKESPECIAL, className, hook.getTextSetter(), "(Ljava/lang/String;)V", false);
+            setter.visitInsn(Opcodes.RETURN);
+            setter.visitMaxs(2, 2);
+            setter.visitEnd();
+        }
+    }
+}
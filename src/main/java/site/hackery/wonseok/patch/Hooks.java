@@ -0,0 +1,43 @@
+package site.hackery.wonseok.patch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every text input Wonseok hooks, looked up by class name.
+ * <p>
+ * Since this is checked for every class the game loads, all targets are in a single hash map, so the cost of the check
+ * doesn't grow with the number of targets.
+ */
+public class Hooks {
+    private static final Map<String, List<Hook>> HOOKS_BY_CLASS = new HashMap<>();
+
+    static {
+        // Text fields, which are used by chat, anvils, command blocks, etc.
+        register(new Hook("net/minecraft/client/gui/GuiTextField", "textboxKeyTyped", "(CI)Z",
+                "writeText", "(Ljava/lang/String;)V"));
+        register(new Hook("bjc", "a", "(CI)Z", "b", "(Ljava/lang/String;)V"));
+
+        // Book pages, which are typed into at the end of the page.
+        register(new Hook("net/minecraft/client/gui/GuiScreenBook", "keyTypedInBook", "(CI)V",
+                "pageInsertIntoCurrent", "(Ljava/lang/String;)V", "pageGetCurrent", "pageSetCurrent"));
+        register(new Hook("bmh", "c", "(CI)V", "b", "(Ljava/lang/String;)V", "p", "a"));
+    }
+
+    private static void register(Hook hook) {
+        String name = hook.getClassName().replace('/', '.');
+        HOOKS_BY_CLASS.computeIfAbsent(name, n -> new ArrayList<>()).add(hook);
+    }
+
+    /**
+     * @param className The dotted name of a class, as passed to a transformer.
+     * @return The hooks in that class, or an empty list if there aren't any.
+     */
+    public static List<Hook> forClass(String className) {
+        List<Hook> hooks = HOOKS_BY_CLASS.get(className);
+        return hooks != null ? hooks : Collections.<Hook>emptyList();
+    }
+}
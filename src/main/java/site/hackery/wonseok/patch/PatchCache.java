@@ -0,0 +1,200 @@
+package site.hackery.wonseok.patch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps patched classes on disk, so that each class only needs patching once per game and Wonseok version.
+ * <p>
+ * Entries are kept in a directory for the version of the patches, and keyed by a hash of the class name and the
+ * unpatched bytes, so a different game version or a Wonseok update simply misses the cache. The first time an entry is
+ * written, the directories of every other version are deleted, so updates don't leave old entries behind. Entries are
+ * written to a temporary file and then moved into place, so a crash part way through can't leave a truncated entry
+ * behind.
+ */
+public class PatchCache {
+    private final Path root;
+    private final Path directory;
+    private final String version;
+    private boolean pruned;
+
+    /**
+     * @param directory The directory to keep cached classes in. It's created when the first class is cached.
+     * @param version   The version of the patches, i.e. from {@link #version}. It's used as a directory name.
+     */
+    public PatchCache(Path directory, String version) {
+        this.root = directory;
+        this.directory = directory.resolve(version);
+        this.version = version;
+    }
+
+    /**
+     * @param version  The Wonseok version.
+     * @param patchers The classes that decide how classes are patched.
+     * @return The version of the patches the given classes make: the Wonseok version, followed by a hash of the classes
+     *         themselves, so that changing how classes are patched misses the cache even without a version bump.
+     */
+    public static String version(String version, Class<?>... patchers) {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+
+        for (Class<?> patcher : patchers) {
+            digest.update(patcher.getName().getBytes(StandardCharsets.UTF_8));
+
+            try (InputStream in = patcher.getResourceAsStream("/" + patcher.getName().replace('.', '/') + ".class")) {
+                int read;
+                while (in != null && (read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                System.out.println("[Wonseok] Couldn't read " + patcher.getName() + ": " + e);
+            }
+        }
+
+        return version + "-" + toHex(digest.digest()).substring(0, 16);
+    }
+
+    /**
+     * Gets the patched form of a class from the cache, or patches it and caches the result.
+     * Problems with the cache are logged and otherwise ignored, since the class can always be patched again.
+     *
+     * @param name    The name of the class.
+     * @param input   The unpatched bytes of the class.
+     * @param patcher Patches the class, if it isn't cached.
+     * @return The patched bytes of the class.
+     */
+    public byte[] get(String name, byte[] input, UnaryOperator<byte[]> patcher) {
+        Path entry = directory.resolve(key(name, input) + ".class");
+
+        try {
+            byte[] cached = read(entry);
+
+            if (cached != null) {
+                return cached;
+            }
+        } catch (IOException e) {
+            System.out.println("[Wonseok] Couldn't read cached " + name + ": " + e);
+        }
+
+        byte[] patched = patcher.apply(input);
+
+        try {
+            write(entry, patched);
+        } catch (IOException e) {
+            System.out.println("[Wonseok] Couldn't cache " + name + ": " + e);
+        }
+
+        return patched;
+    }
+
+    private static byte[] read(Path entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            byte[] bytes = new byte[mapped.remaining()];
+            mapped.get(bytes);
+            return bytes;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void write(Path entry, byte[] bytes) throws IOException {
+        if (!pruned) {
+            pruned = true;
+            prune();
+        }
+
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "patch", ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+
+            try {
+                Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Deletes everything in the cache but this version's entries. A miss means something changed, so this only runs
+    // when there's one, rather than on every launch.
+    private void prune() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(root)) {
+            for (Path child : children) {
+                if (!child.getFileName().toString().equals(version)) {
+                    delete(child);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("[Wonseok] Couldn't prune the patch cache: " + e);
+        }
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) {
+                    delete(child);
+                }
+            }
+        }
+
+        Files.deleteIfExists(path);
+    }
+
+    private static String key(String name, byte[] input) {
+        MessageDigest digest = newDigest();
+
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(input);
+
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 isn't available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >>> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package site.hackery.wonseok.patch;
+
+/**
+ * Implemented by patched GUIs which always insert typed text at the end, like books.
+ * The methods are named to stay clear of anything already in the class.
+ */
+public interface TextTarget {
+    String wonseok$getText();
+
+    void wonseok$setText(String text);
+}
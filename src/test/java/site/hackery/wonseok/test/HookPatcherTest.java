@@ -0,0 +1,185 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.BasicVerifier;
+import site.hackery.wonseok.patch.Hook;
+import site.hackery.wonseok.patch.HookPatcher;
+import site.hackery.wonseok.patch.Hooks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class HookPatcherTest {
+    private static final String GUITEXTFIELD = "net/minecraft/client/gui/GuiTextField";
+
+    @Test
+    public void hooksForClass() {
+        Assert.assertEquals(1, Hooks.forClass("net.minecraft.client.gui.GuiTextField").size());
+        Assert.assertEquals("a", Hooks.forClass("bjc").get(0).getMethodName());
+        Assert.assertTrue(Hooks.forClass("net.minecraft.client.gui.GuiScreenBook").get(0).hasTextAccessors());
+        Assert.assertEquals("c", Hooks.forClass("bmh").get(0).getMethodName());
+        Assert.assertEquals("p", Hooks.forClass("bmh").get(0).getTextGetter());
+        Assert.assertEquals("a", Hooks.forClass("bmh").get(0).getTextSetter());
+        Assert.assertTrue(Hooks.forClass("net.minecraft.client.gui.GuiScreen").isEmpty());
+        Assert.assertTrue(Hooks.forClass("bjd").isEmpty());
+    }
+
+    @Test
+    public void hooksTypedAndPastedText() throws Exception {
+        byte[] patched = patch(guiTextField());
+
+        ClassNode classNode = new ClassNode();
+        new ClassReader(patched).accept(classNode, 0);
+
+        MethodNode textboxKeyTyped = method(classNode, "textboxKeyTyped");
+        List<MethodInsnNode> calls = new ArrayList<>();
+        for (AbstractInsnNode insn = textboxKeyTyped.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof MethodInsnNode) {
+                calls.add((MethodInsnNode) insn);
+            }
+        }
+
+        // Cutting writes a constant, and isn't hooked. Pasting and typing are.
+        Assert.assertEquals(9, calls.size());
+        Assert.assertEquals("writeText", calls.get(0).name);
+        Assert.assertEquals("getClipboardString", calls.get(1).name);
+        Assert.assertEquals("textInputHook", calls.get(2).name);
+        Assert.assertEquals("writeText", calls.get(3).name);
+        Assert.assertEquals("afterTextInputHook", calls.get(4).name);
+        Assert.assertEquals("toString", calls.get(5).name);
+        Assert.assertEquals("textInputHook", calls.get(6).name);
+        Assert.assertEquals("(Ljava/lang/String;Ljava/lang/Object;)Ljava/lang/String;", calls.get(6).desc);
+        Assert.assertEquals("writeText", calls.get(7).name);
+        Assert.assertEquals("afterTextInputHook", calls.get(8).name);
+        Assert.assertEquals("(Ljava/lang/Object;)V", calls.get(8).desc);
+
+        // Analysing the method checks that the stack fits within maxStack.
+        new Analyzer<>(new BasicVerifier()).analyze(GUITEXTFIELD, textboxKeyTyped);
+    }
+
+    @Test
+    public void copiesOtherMethods() {
+        byte[] original = guiTextField();
+        byte[] patched = patch(original);
+
+        ClassNode before = new ClassNode();
+        new ClassReader(original).accept(before, 0);
+        ClassNode after = new ClassNode();
+        new ClassReader(patched).accept(after, 0);
+
+        Assert.assertEquals(before.methods.size(), after.methods.size());
+        Assert.assertEquals(method(before, "writeText").instructions.size(), method(after, "writeText").instructions.size());
+    }
+
+    @Test
+    public void textAccessors() throws Exception {
+        Hook hook = new Hook(GUITEXTFIELD, "textboxKeyTyped", "(CI)Z", "writeText", "(Ljava/lang/String;)V",
+                "getText", "setText");
+        byte[] patched = new HookPatcher().patchClass(guiTextField(), Collections.singletonList(hook));
+
+        ClassNode classNode = new ClassNode();
+        new ClassReader(patched).accept(classNode, 0);
+
+        Assert.assertTrue(classNode.interfaces.contains("site/hackery/wonseok/patch/TextTarget"));
+        new Analyzer<>(new BasicVerifier()).analyze(GUITEXTFIELD, method(classNode, "wonseok$getText"));
+        new Analyzer<>(new BasicVerifier()).analyze(GUITEXTFIELD, method(classNode, "wonseok$setText"));
+    }
+
+    @Test
+    public void missingTextAccessors() {
+        // A class that happens to share an obfuscated name, but isn't the one the hook was written for.
+        Hook hook = new Hook(GUITEXTFIELD, "textboxKeyTyped", "(CI)Z", "writeText", "(Ljava/lang/String;)V",
+                "pageGetCurrent", "pageSetCurrent");
+        byte[] original = guiTextField();
+
+        Assert.assertSame(original, new HookPatcher().patchClass(original, Collections.singletonList(hook)));
+    }
+
+    private static byte[] patch(byte[] guiTextField) {
+        return new HookPatcher().patchClass(guiTextField, Hooks.forClass("net.minecraft.client.gui.GuiTextField"));
+    }
+
+    private static MethodNode method(ClassNode classNode, String name) {
+        for (MethodNode method : classNode.methods) {
+            if (method.name.equals(name)) {
+                return method;
+            }
+        }
+
+        throw new AssertionError("Missing method " + name);
+    }
+
+    /**
+     * Generates a cut-down GuiTextField, whose textboxKeyTyped writes text in three places: cutting, pasting and typing.
+     */
+    private static byte[] guiTextField() {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, GUITEXTFIELD, null, "java/lang/Object", null);
+
+        MethodVisitor writeText = writer.visitMethod(Opcodes.ACC_PUBLIC, "writeText", "(Ljava/lang/String;)V", null, null);
+        writeText.visitCode();
+        writeText.visitInsn(Opcodes.RETURN);
+        writeText.visitMaxs(0, 0);
+        writeText.visitEnd();
+
+        MethodVisitor getText = writer.visitMethod(Opcodes.ACC_PUBLIC, "getText", "()Ljava/lang/String;", null, null);
+        getText.visitCode();
+        getText.visitLdcInsn("");
+        getText.visitInsn(Opcodes.ARETURN);
+        getText.visitMaxs(0, 0);
+        getText.visitEnd();
+
+        MethodVisitor setText = writer.visitMethod(Opcodes.ACC_PUBLIC, "setText", "(Ljava/lang/String;)V", null, null);
+        setText.visitCode();
+        setText.visitInsn(Opcodes.RETURN);
+        setText.visitMaxs(0, 0);
+        setText.visitEnd();
+
+        MethodVisitor keyTyped = writer.visitMethod(Opcodes.ACC_PUBLIC, "textboxKeyTyped", "(CI)Z", null, null);
+        Label paste = new Label();
+        Label printable = new Label();
+
+        keyTyped.visitCode();
+        keyTyped.visitVarInsn(Opcodes.ILOAD, 2);
+        keyTyped.visitJumpInsn(Opcodes.IFEQ, paste);
+        keyTyped.visitVarInsn(Opcodes.ALOAD, 0);
+        keyTyped.visitLdcInsn("");
+        keyTyped.visitMethodInsn(Opcodes.INVOKEVIRTUAL, GUITEXTFIELD, "writeText", "(Ljava/lang/String;)V", false);
+        keyTyped.visitInsn(Opcodes.ICONST_1);
+        keyTyped.visitInsn(Opcodes.IRETURN);
+        keyTyped.visitLabel(paste);
+        keyTyped.visitVarInsn(Opcodes.ILOAD, 2);
+        keyTyped.visitInsn(Opcodes.ICONST_1);
+        keyTyped.visitJumpInsn(Opcodes.IF_ICMPNE, printable);
+        keyTyped.visitVarInsn(Opcodes.ALOAD, 0);
+        keyTyped.visitMethodInsn(Opcodes.INVOKESTATIC, "net/minecraft/client/gui/GuiScreen", "getClipboardString",
+                "()Ljava/lang/String;", false);
+        keyTyped.visitMethodInsn(Opcodes.INVOKEVIRTUAL, GUITEXTFIELD, "writeText", "(Ljava/lang/String;)V", false);
+        keyTyped.visitInsn(Opcodes.ICONST_1);
+        keyTyped.visitInsn(Opcodes.IRETURN);
+        keyTyped.visitLabel(printable);
+        keyTyped.visitVarInsn(Opcodes.ALOAD, 0);
+        keyTyped.visitVarInsn(Opcodes.ILOAD, 1);
+        keyTyped.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Character", "toString", "(C)Ljava/lang/String;", false);
+        keyTyped.visitMethodInsn(Opcodes.INVOKEVIRTUAL, GUITEXTFIELD, "writeText", "(Ljava/lang/String;)V", false);
+        keyTyped.visitInsn(Opcodes.ICONST_1);
+        keyTyped.visitInsn(Opcodes.IRETURN);
+        keyTyped.visitMaxs(0, 0);
+        keyTyped.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
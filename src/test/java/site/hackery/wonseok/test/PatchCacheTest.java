@@ -0,0 +1,86 @@
+package site.hackery.wonseok.test;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import site.hackery.wonseok.patch.PatchCache;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PatchCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void patchesOnce() {
+        Path directory = folder.getRoot().toPath().resolve("cache");
+        AtomicInteger patches = new AtomicInteger();
+        byte[] input = { 1, 2, 3 };
+
+        PatchCache cache = new PatchCache(directory, "1.0.0");
+        byte[] first = cache.get("bjc", input, bytes -> {
+            patches.incrementAndGet();
+            return new byte[] { 4, 5, 6, 7 };
+        });
+
+        // A new cache over the same directory stands in for the next launch.
+        byte[] second = new PatchCache(directory, "1.0.0").get("bjc", input, bytes -> {
+            patches.incrementAndGet();
+            return new byte[0];
+        });
+
+        Assert.assertEquals(1, patches.get());
+        Assert.assertArrayEquals(new byte[] { 4, 5, 6, 7 }, first);
+        Assert.assertArrayEquals(first, second);
+
+        // Only the entry is left behind, not the temporary file it was written to.
+        File[] files = directory.resolve("1.0.0").toFile().listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertEquals(1, files.length);
+        Assert.assertTrue(files[0].getName().endsWith(".class"));
+    }
+
+    @Test
+    public void missesOnChange() {
+        Path directory = folder.getRoot().toPath();
+        AtomicInteger patches = new AtomicInteger();
+
+        new PatchCache(directory, "1.0.0").get("bjc", new byte[] { 1 }, bytes -> {
+            patches.incrementAndGet();
+            return bytes;
+        });
+        new PatchCache(directory, "1.0.1").get("bjc", new byte[] { 1 }, bytes -> {
+            patches.incrementAndGet();
+            return bytes;
+        });
+        new PatchCache(directory, "1.0.1").get("bjc", new byte[] { 2 }, bytes -> {
+            patches.incrementAndGet();
+            return bytes;
+        });
+
+        Assert.assertEquals(3, patches.get());
+    }
+
+    @Test
+    public void prunesOtherVersions() {
+        Path directory = folder.getRoot().toPath();
+
+        new PatchCache(directory, "1.0.0").get("bjc", new byte[] { 1 }, bytes -> bytes);
+        new PatchCache(directory, "1.0.1").get("bjc", new byte[] { 1 }, bytes -> bytes);
+
+        String[] versions = directory.toFile().list();
+        Assert.assertArrayEquals(new String[] { "1.0.1" }, versions);
+    }
+
+    @Test
+    public void versionCoversPatchers() {
+        String version = PatchCache.version("1.0.0", PatchCache.class);
+
+        Assert.assertTrue(version.startsWith("1.0.0-"));
+        Assert.assertEquals(version, PatchCache.version("1.0.0", PatchCache.class));
+        Assert.assertNotEquals(version, PatchCache.version("1.0.0", PatchCacheTest.class));
+    }
+}
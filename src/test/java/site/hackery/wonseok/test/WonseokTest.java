@@ -0,0 +1,233 @@
+package site.hackery.wonseok.test;
+
+import net.minecraft.client.gui.GuiTextField;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import site.hackery.wonseok.Wonseok;
+import site.hackery.wonseok.patch.TextTarget;
+import site.hackery.wonseok.util.keymap.KoreanKeymaps;
+
+public class WonseokTest {
+    private boolean shifted;
+
+    @Before
+    public void setUp() {
+        Wonseok.setShiftKeyDown(() -> shifted);
+        Wonseok.setKeymap(KoreanKeymaps.DUBEOLSIK);
+        Wonseok.setRomajaInput(false);
+        Wonseok.setImeEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        Wonseok.setImeEnabled(false);
+    }
+
+    @Test
+    public void composesAcrossKeystrokes() {
+        StubTextTarget target = new StubTextTarget();
+
+        type(target, "rkr");
+        Assert.assertEquals("각", target.text);
+
+        // The final consonant moves over to start the next syllable.
+        type(target, "k");
+        Assert.assertEquals("가가", target.text);
+
+        type(target, "dlfr");
+        Assert.assertEquals("가가읽", target.text);
+    }
+
+    @Test
+    public void replacesOnlyThePreedit() {
+        StubTextTarget target = new StubTextTarget();
+        target.text = "abc ";
+
+        type(target, "rks");
+        Assert.assertEquals("abc 간", target.text);
+
+        // 가 is committed in front of the new preedit, and the text before it is left alone.
+        type(target, "k");
+        Assert.assertEquals("abc 가나", target.text);
+    }
+
+    @Test
+    public void paste() {
+        StubTextTarget target = new StubTextTarget();
+
+        paste(target, "dkssud gktpdy");
+        Assert.assertEquals("안녕 하세요", target.text);
+
+        // The last syllable is still the preedit, so typing carries on with it.
+        type(target, "d");
+        Assert.assertEquals("안녕 하세용", target.text);
+    }
+
+    @Test
+    public void pasteContinuesSyllable() {
+        StubTextTarget target = new StubTextTarget();
+
+        type(target, "dk");
+        paste(target, "ssud");
+        Assert.assertEquals("안녕", target.text);
+    }
+
+    @Test
+    public void pasteWithUncomposableCharacters() {
+        StubTextTarget target = new StubTextTarget();
+
+        // Characters without an input commit the syllable before them, and are pasted as they are.
+        paste(target, "gk1gk!?rk");
+        Assert.assertEquals("하1하!?가", target.text);
+    }
+
+    @Test
+    public void sessionPerTarget() {
+        StubTextTarget first = new StubTextTarget();
+        StubTextTarget second = new StubTextTarget();
+
+        type(first, "rk");
+        type(second, "sk");
+        Assert.assertEquals("가", first.text);
+        Assert.assertEquals("나", second.text);
+
+        // Typing into the second target ended the first one's composition, so this starts a new syllable.
+        type(first, "s");
+        Assert.assertEquals("가ㄴ", first.text);
+
+        // ...as did this, for the second target.
+        type(second, "s");
+        Assert.assertEquals("나ㄴ", second.text);
+    }
+
+    @Test
+    public void capsLockTypesUnshifted() {
+        StubTextTarget target = new StubTextTarget();
+
+        // Caps Lock on, without shift.
+        type(target, "RK");
+        Assert.assertEquals("가", target.text);
+
+        // Caps Lock on, with shift.
+        shifted = true;
+        type(target, "r");
+        shifted = false;
+        type(target, "K");
+        Assert.assertEquals("가까", target.text);
+    }
+
+    @Test
+    public void refusedTextFieldInsert() {
+        StubTextField textField = new StubTextField(1);
+
+        type(textField, "rks");
+        Assert.assertEquals("간", textField.getText());
+
+        // 가나 doesn't fit, so the field refuses it, and the selected preedit has to be let go.
+        type(textField, "k");
+        Assert.assertEquals("간", textField.getText());
+        Assert.assertEquals(textField.getCursorPosition(), textField.getSelectionEnd());
+    }
+
+    private static void type(StubTextTarget target, String keystrokes) {
+        for (int i = 0; i < keystrokes.length(); i++) {
+            target.insert(Wonseok.textInputHook(String.valueOf(keystrokes.charAt(i)), target));
+            Wonseok.afterTextInputHook(target);
+        }
+    }
+
+    private static void paste(StubTextTarget target, String text) {
+        target.insert(Wonseok.textInputHook(text, target));
+        Wonseok.afterTextInputHook(target);
+    }
+
+    private static void type(GuiTextField textField, String keystrokes) {
+        for (int i = 0; i < keystrokes.length(); i++) {
+            textField.writeText(Wonseok.textInputHook(String.valueOf(keystrokes.charAt(i)), textField));
+            Wonseok.afterTextInputHook(textField);
+        }
+    }
+
+    /**
+     * A text input like a book, which always inserts at the end.
+     */
+    private static class StubTextTarget implements TextTarget {
+        private String text = "";
+
+        void insert(String inserted) {
+            text += inserted;
+        }
+
+        @Override
+        public String wonseok$getText() {
+            return text;
+        }
+
+        @Override
+        public void wonseok$setText(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * A headless text field, which refuses any insert that would make its text too long, like a validator would.
+     */
+    private static class StubTextField extends GuiTextField {
+        private final int maxLength;
+
+        private String text = "";
+        private int cursorPosition;
+        private int selectionEnd;
+
+        StubTextField(int maxLength) {
+            super(0, null, 0, 0, 0, 0);
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public void setText(String text) {
+            this.text = text;
+            setCursorPosition(text.length());
+        }
+
+        @Override
+        public int getCursorPosition() {
+            return cursorPosition;
+        }
+
+        @Override
+        public void setCursorPosition(int position) {
+            cursorPosition = Math.max(0, Math.min(position, text.length()));
+            setSelectionPos(cursorPosition);
+        }
+
+        @Override
+        public int getSelectionEnd() {
+            return selectionEnd;
+        }
+
+        @Override
+        public void setSelectionPos(int position) {
+            selectionEnd = Math.max(0, Math.min(position, text.length()));
+        }
+
+        @Override
+        public void writeText(String textToWrite) {
+            int start = Math.min(cursorPosition, selectionEnd);
+            int end = Math.max(cursorPosition, selectionEnd);
+            String written = text.substring(0, start) + textToWrite + text.substring(end);
+
+            if (written.length() <= maxLength) {
+                text = written;
+                setCursorPosition(start + textToWrite.length());
+            }
+        }
+    }
+}